@@ -0,0 +1,49 @@
+package com.my.jmh;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 各个版本ringBuffer基准测试的公共部分
+ * 拓扑结构（P为生产者，A/B/C为单线程消费者）：
+ * ONE_TO_ONE：P -> A
+ * PIPELINE：P -> A -> B -> C
+ * DIAMOND：P -> A,B -> C
+ * WORKER_POOL：P -> 3个线程的workerPool
+ * THREE_TO_ONE：3个生产者 -> A
+ */
+public class BenchmarkSupport {
+
+    public static final int RING_BUFFER_SIZE = 1024 * 16;
+
+    public static final String ONE_TO_ONE = "ONE_TO_ONE";
+    public static final String PIPELINE = "PIPELINE";
+    public static final String DIAMOND = "DIAMOND";
+    public static final String WORKER_POOL = "WORKER_POOL";
+
+    public static final String SINGLE = "SINGLE";
+    public static final String MULTI = "MULTI";
+
+    /**
+     * v1~v5版本的消费者不支持停止，因此消费者都跑在守护线程上，避免jmh的fork进程无法退出
+     * */
+    public static ExecutorService daemonExecutor() {
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "benchmark-consumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static IllegalArgumentException unsupported(String topology) {
+        return new IllegalArgumentException("unsupported topology:" + topology);
+    }
+
+    /**
+     * 所有版本共用的事件对象
+     * */
+    public static class ValueEvent {
+        public long value;
+    }
+
+}
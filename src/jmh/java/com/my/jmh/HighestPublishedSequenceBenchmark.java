@@ -0,0 +1,59 @@
+package com.my.jmh;
+
+import com.my.v6.component.MyBlockingWaitStrategy;
+import com.my.v6.component.MyMultiProducerSequencer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程生产者getHighestPublishedSequence扫描的基准测试
+ * perSlotVolatile：逐个槽位getIntVolatile的扫描（优化前的实现）
+ * fencedScan：普通读扫描 + 一次loadFence（当前的实现）
+ * batchSize即消费者一次需要扫描的槽位数量（消费者落后生产者的距离）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HighestPublishedSequenceBenchmark {
+
+    private static final int RING_BUFFER_SIZE = 16384;
+
+    @Param({"1", "64", "1024", "8192"})
+    private int batchSize;
+
+    private MyMultiProducerSequencer sequencer;
+    private long lowBound;
+    private long availableSequence;
+
+    @Setup
+    public void setup() {
+        sequencer = new MyMultiProducerSequencer(RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+        // 先让生产者绕过一圈，使得扫描的区间跨越数组边界（覆盖标识加1的分支）
+        long warmUp = sequencer.next(RING_BUFFER_SIZE - batchSize / 2);
+        sequencer.publish(0, warmUp);
+
+        availableSequence = sequencer.next(batchSize);
+        lowBound = availableSequence - batchSize + 1;
+        sequencer.publish(lowBound, availableSequence);
+    }
+
+    @Benchmark
+    public long perSlotVolatile() {
+        for (long sequence = lowBound; sequence <= availableSequence; sequence++) {
+            if (!sequencer.isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    @Benchmark
+    public long fencedScan() {
+        return sequencer.getHighestPublishedSequence(lowBound, availableSequence);
+    }
+
+}
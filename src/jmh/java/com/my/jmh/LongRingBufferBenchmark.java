@@ -0,0 +1,119 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v6.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件对象ringBuffer（MyRingBuffer<ValueEvent>）与基本类型ringBuffer（MyLongRingBuffer、MyLongPairRingBuffer）的对比
+ * 拓扑结构均为ONE_TO_ONE，单线程生产者，消费者读取事件中的值做累加
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongRingBufferBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ObjectRing {
+
+        MyRingBuffer<ValueEvent> ringBuffer;
+        private MyDisruptor<ValueEvent> myDisruptor;
+        private ExecutorService executor;
+        private long sum;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            myDisruptor = new MyDisruptor<>(ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, executor,
+                    ProducerType.SINGLE, new MyBlockingWaitStrategy());
+            myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> sum += event.value);
+            myDisruptor.start();
+            ringBuffer = myDisruptor.getRingBuffer();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            myDisruptor.halt();
+            executor.shutdownNow();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongRing {
+
+        MyLongRingBuffer ringBuffer;
+        private MyLongBatchEventProcessor eventProcessor;
+        private ExecutorService executor;
+        private long sum;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            ringBuffer = MyLongRingBuffer.create(ProducerType.SINGLE, BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+            eventProcessor = new MyLongBatchEventProcessor(ringBuffer, (value, sequence, endOfBatch) -> sum += value, ringBuffer.newBarrier());
+            ringBuffer.addGatingConsumerSequenceList(eventProcessor.getCurrentConsumeSequence());
+            executor.execute(eventProcessor);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            eventProcessor.halt();
+            executor.shutdownNow();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongPairRing {
+
+        MyLongPairRingBuffer ringBuffer;
+        private MyLongPairBatchEventProcessor eventProcessor;
+        private ExecutorService executor;
+        private long sum;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            ringBuffer = MyLongPairRingBuffer.create(ProducerType.SINGLE, BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+            eventProcessor = new MyLongPairBatchEventProcessor(ringBuffer,
+                    (first, second, sequence, endOfBatch) -> sum += first + second, ringBuffer.newBarrier());
+            ringBuffer.addGatingConsumerSequenceList(eventProcessor.getCurrentConsumeSequence());
+            executor.execute(eventProcessor);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            eventProcessor.halt();
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void object(ObjectRing state) {
+        MyRingBuffer<ValueEvent> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void primitiveLong(LongRing state) {
+        MyLongRingBuffer ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.set(sequence, sequence);
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void primitiveLongPair(LongPairRing state) {
+        MyLongPairRingBuffer ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.set(sequence, sequence, -sequence);
+        ringBuffer.publish(sequence);
+    }
+
+}
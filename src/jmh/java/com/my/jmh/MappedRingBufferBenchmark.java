@@ -0,0 +1,137 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v6.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆内ringBuffer、堆外ringBuffer（MyOffHeapRingBuffer）、内存映射文件ringBuffer（MyMappedRingBuffer）的对比
+ * 拓扑结构均为ONE_TO_ONE，单线程生产者
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedRingBufferBenchmark {
+
+    /**
+     * 只有一个long字段的堆外事件
+     * */
+    public static class ValueFlyweight extends MyFlyweight {
+
+        public static final int RECORD_SIZE = 8;
+
+        public void setValue(long value) {
+            putLong(0, value);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HeapRing {
+
+        MyRingBuffer<ValueEvent> ringBuffer;
+        private MyDisruptor<ValueEvent> myDisruptor;
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            myDisruptor = new MyDisruptor<>(ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, executor,
+                    ProducerType.SINGLE, new MyBlockingWaitStrategy());
+            myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> {});
+            myDisruptor.start();
+            ringBuffer = myDisruptor.getRingBuffer();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            myDisruptor.halt();
+            executor.shutdownNow();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OffHeapRing {
+
+        MyOffHeapRingBuffer<ValueFlyweight> ringBuffer;
+        private MyDisruptor<ValueFlyweight> myDisruptor;
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            ringBuffer = MyOffHeapRingBuffer.create(ProducerType.SINGLE, ValueFlyweight::new, ValueFlyweight.RECORD_SIZE,
+                    BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+            myDisruptor = new MyDisruptor<>(ringBuffer, executor);
+            myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> {});
+            myDisruptor.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            myDisruptor.halt();
+            executor.shutdownNow();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MappedRing {
+
+        MyMappedRingBuffer<ValueFlyweight> ringBuffer;
+        private MyDisruptor<ValueFlyweight> myDisruptor;
+        private ExecutorService executor;
+        private File file;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            executor = BenchmarkSupport.daemonExecutor();
+            file = File.createTempFile("mapped-ring-benchmark", ".ring");
+            // createTempFile会创建空文件，open时会按照空文件初始化header
+            ringBuffer = MyMappedRingBuffer.open(file, ValueFlyweight::new, ValueFlyweight.RECORD_SIZE,
+                    BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+            myDisruptor = new MyDisruptor<>(ringBuffer, executor);
+            // 消费者序列同样持久化在映射文件中
+            myDisruptor.handleEventsWith(new MyBatchEventProcessor<>(ringBuffer, (event, sequence, endOfBatch) -> {},
+                    ringBuffer.newBarrier(), Integer.MAX_VALUE, ringBuffer.consumerSequence(0)));
+            myDisruptor.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            myDisruptor.halt();
+            executor.shutdownNow();
+            file.delete();
+        }
+    }
+
+    @Benchmark
+    public void heap(HeapRing state) {
+        MyRingBuffer<ValueEvent> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void offHeap(OffHeapRing state) {
+        MyRingBuffer<ValueFlyweight> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(sequence);
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void mapped(MappedRing state) {
+        MyRingBuffer<ValueFlyweight> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(sequence);
+        ringBuffer.publish(sequence);
+    }
+
+}
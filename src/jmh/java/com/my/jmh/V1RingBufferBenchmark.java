@@ -0,0 +1,55 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v1.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v1：单生产者 + 单消费者
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class V1RingBufferBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class OneProducer {
+
+        @Param({BenchmarkSupport.ONE_TO_ONE})
+        public String topology;
+
+        private MyRingBuffer<ValueEvent> ringBuffer;
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            ringBuffer = MyRingBuffer.createSingleProducer(
+                    ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+
+            MyBatchEventProcessor<ValueEvent> processorA =
+                    new MyBatchEventProcessor<>(ringBuffer, (event, sequence, endOfBatch) -> {}, ringBuffer.newBarrier());
+            ringBuffer.setConsumerSequence(processorA.getCurrentConsumeSequence());
+            executor.execute(processorA);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void oneProducer(OneProducer state) {
+        MyRingBuffer<ValueEvent> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+}
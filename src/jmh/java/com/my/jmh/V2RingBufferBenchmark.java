@@ -0,0 +1,81 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v2.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v2：单生产者 + 多个存在依赖关系的单线程消费者
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class V2RingBufferBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class OneProducer {
+
+        @Param({BenchmarkSupport.ONE_TO_ONE, BenchmarkSupport.PIPELINE, BenchmarkSupport.DIAMOND})
+        public String topology;
+
+        private MyRingBuffer<ValueEvent> ringBuffer;
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            executor = BenchmarkSupport.daemonExecutor();
+            ringBuffer = MyRingBuffer.createSingleProducer(
+                    ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, new MyBlockingWaitStrategy());
+
+            switch (topology) {
+                case BenchmarkSupport.ONE_TO_ONE: {
+                    MySequence sequenceA = startProcessor(ringBuffer.newBarrier());
+                    ringBuffer.addGatingConsumerSequenceList(sequenceA);
+                    break;
+                }
+                case BenchmarkSupport.PIPELINE: {
+                    MySequence sequenceA = startProcessor(ringBuffer.newBarrier());
+                    MySequence sequenceB = startProcessor(ringBuffer.newBarrier(sequenceA));
+                    MySequence sequenceC = startProcessor(ringBuffer.newBarrier(sequenceB));
+                    ringBuffer.addGatingConsumerSequenceList(sequenceC);
+                    break;
+                }
+                case BenchmarkSupport.DIAMOND: {
+                    MySequence sequenceA = startProcessor(ringBuffer.newBarrier());
+                    MySequence sequenceB = startProcessor(ringBuffer.newBarrier());
+                    MySequence sequenceC = startProcessor(ringBuffer.newBarrier(sequenceA, sequenceB));
+                    ringBuffer.addGatingConsumerSequenceList(sequenceC);
+                    break;
+                }
+                default:
+                    throw BenchmarkSupport.unsupported(topology);
+            }
+        }
+
+        private MySequence startProcessor(MySequenceBarrier barrier) {
+            MyBatchEventProcessor<ValueEvent> processor =
+                    new MyBatchEventProcessor<>(ringBuffer, (event, sequence, endOfBatch) -> {}, barrier);
+            executor.execute(processor);
+            return processor.getCurrentConsumeSequence();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void oneProducer(OneProducer state) {
+        MyRingBuffer<ValueEvent> ringBuffer = state.ringBuffer;
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v5.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v5：通过MyDisruptor的dsl构建消费者依赖关系
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class V5RingBufferBenchmark {
+
+    public static abstract class Ring {
+
+        protected MyRingBuffer<ValueEvent> ringBuffer;
+        private ExecutorService executor;
+
+        @SuppressWarnings("unchecked")
+        protected void build(ProducerType producerType, String topology) {
+            executor = BenchmarkSupport.daemonExecutor();
+            MyDisruptor<ValueEvent> myDisruptor = new MyDisruptor<>(
+                    ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, executor, producerType, new MyBlockingWaitStrategy());
+            MyEventHandler<ValueEvent> eventHandler = (event, sequence, endOfBatch) -> {};
+
+            switch (topology) {
+                case BenchmarkSupport.ONE_TO_ONE:
+                    myDisruptor.handleEventsWith(eventHandler);
+                    break;
+                case BenchmarkSupport.PIPELINE:
+                    myDisruptor.handleEventsWith(eventHandler).then(eventHandler).then(eventHandler);
+                    break;
+                case BenchmarkSupport.DIAMOND:
+                    myDisruptor.handleEventsWith(eventHandler, eventHandler).then(eventHandler);
+                    break;
+                case BenchmarkSupport.WORKER_POOL: {
+                    MyWorkHandler<ValueEvent> workHandler = event -> {};
+                    myDisruptor.createWorkerPool(new MySequence[0], new MyWorkHandler[]{workHandler, workHandler, workHandler});
+                    break;
+                }
+                default:
+                    throw BenchmarkSupport.unsupported(topology);
+            }
+
+            myDisruptor.start();
+            ringBuffer = myDisruptor.getRingBuffer();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OneProducer extends Ring {
+
+        @Param({BenchmarkSupport.ONE_TO_ONE, BenchmarkSupport.PIPELINE, BenchmarkSupport.DIAMOND,
+                BenchmarkSupport.WORKER_POOL})
+        public String topology;
+
+        @Param({"SINGLE", "MULTI"})
+        public ProducerType producerType;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            build(producerType, topology);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ThreeProducers extends Ring {
+
+        @Setup(Level.Trial)
+        public void setup() {
+            build(ProducerType.MULTI, BenchmarkSupport.ONE_TO_ONE);
+        }
+    }
+
+    @Benchmark
+    public void oneProducer(OneProducer state) {
+        publish(state.ringBuffer);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public void threeToOne(ThreeProducers state) {
+        publish(state.ringBuffer);
+    }
+
+    private static void publish(MyRingBuffer<ValueEvent> ringBuffer) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+}
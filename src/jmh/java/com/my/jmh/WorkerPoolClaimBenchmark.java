@@ -0,0 +1,61 @@
+package com.my.jmh;
+
+import com.my.jmh.BenchmarkSupport.ValueEvent;
+import com.my.v6.component.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * workerPool中每个worker每次cas争抢的序列个数（claimSize）对吞吐量的影响
+ * 拓扑结构为WORKER_POOL（P -> workers个线程的workerPool），单线程生产者
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkerPoolClaimBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int workers;
+
+    @Param({"1", "16", "64"})
+    public int claimSize;
+
+    private MyRingBuffer<ValueEvent> ringBuffer;
+    private MyDisruptor<ValueEvent> myDisruptor;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = BenchmarkSupport.daemonExecutor();
+        myDisruptor = new MyDisruptor<>(ValueEvent::new, BenchmarkSupport.RING_BUFFER_SIZE, executor,
+                ProducerType.SINGLE, new MyBlockingWaitStrategy());
+        myDisruptor.setWorkerClaimSize(claimSize);
+
+        MyWorkHandler<ValueEvent>[] workHandlers = new MyWorkHandler[workers];
+        for (int i = 0; i < workers; i++) {
+            workHandlers[i] = event -> {};
+        }
+        myDisruptor.createWorkerPool(new MySequence[0], workHandlers);
+        myDisruptor.start();
+        ringBuffer = myDisruptor.getRingBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        myDisruptor.halt();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void publish() {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.my.v6.batch;
+
+import com.my.v6.component.*;
+import com.my.v6.test.OrderEventModel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatchStartAware示例
+ * 消费者启动前先发布10个事件，消费者启动后一次就能看到全部10个事件，但受maxBatchSize=4的限制，会被拆成4、4、2三批
+ * 每一批开始之前都会回调一次onBatchStart
+ */
+public class BatchStartAwareDemo {
+
+    private static final MyEventTranslatorOneArg<OrderEventModel, Integer> PRICE_TRANSLATOR =
+            (event, sequence, price) -> event.setPrice(price);
+
+    private static class BatchPrintHandler implements MyEventHandler<OrderEventModel>, MyBatchStartAware {
+
+        @Override
+        public void onBatchStart(long batchSize, long startSequence) {
+            System.out.println("一批事件开始：batchSize=" + batchSize + " startSequence=" + startSequence);
+        }
+
+        @Override
+        public void consume(OrderEventModel event, long sequence, boolean endOfBatch) {
+            System.out.println("消费者消费事件" + event + " sequence=" + sequence + " endOfBatch=" + endOfBatch);
+        }
+    }
+
+    public static void main(String[] args) {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<OrderEventModel> myDisruptor = new MyDisruptor<>(
+                OrderEventModel::new, 16, executor, ProducerType.SINGLE, new MyBlockingWaitStrategy());
+        myDisruptor.setMaxBatchSize(4);
+        myDisruptor.handleEventsWith(new BatchPrintHandler());
+
+        for (int i = 0; i < 10; i++) {
+            myDisruptor.publishEvent(PRICE_TRANSLATOR, i);
+        }
+        myDisruptor.start();
+
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+}
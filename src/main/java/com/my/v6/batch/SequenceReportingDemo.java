@@ -0,0 +1,69 @@
+package com.my.v6.batch;
+
+import com.my.v6.component.*;
+import com.my.v6.test.OrderEventModel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MySequenceReportingEventHandler示例
+ * 消费者处理每个事件都比较耗时，每处理完2个事件就通过sequenceCallback提前汇报一次进度
+ * 主线程在一批事件的中途就能观察到消费序列在推进，而不需要等到整批结束
+ */
+public class SequenceReportingDemo {
+
+    private static final MyEventTranslatorOneArg<OrderEventModel, Integer> PRICE_TRANSLATOR =
+            (event, sequence, price) -> event.setPrice(price);
+
+    private static class SlowReportingHandler implements MySequenceReportingEventHandler<OrderEventModel> {
+
+        private MySequence sequenceCallback;
+
+        @Override
+        public void setSequenceCallback(MySequence sequenceCallback) {
+            this.sequenceCallback = sequenceCallback;
+        }
+
+        @Override
+        public void consume(OrderEventModel event, long sequence, boolean endOfBatch) {
+            try {
+                // 模拟耗时的处理（例如写一段数据到外部存储）
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (sequence % 2 == 1 && !endOfBatch) {
+                // 这个序列之前（包括它自身）的事件都已处理完成，提前汇报（endOfBatch时由消费者自己更新）
+                this.sequenceCallback.lazySet(sequence);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<OrderEventModel> myDisruptor = new MyDisruptor<>(
+                OrderEventModel::new, 16, executor, ProducerType.SINGLE, new MyBlockingWaitStrategy());
+        // 手动创建消费者，便于观察它的消费序列（创建时会把消费序列通过setSequenceCallback交给eventHandler）
+        MyRingBuffer<OrderEventModel> ringBuffer = myDisruptor.getRingBuffer();
+        MyBatchEventProcessor<OrderEventModel> eventProcessor =
+                new MyBatchEventProcessor<>(ringBuffer, new SlowReportingHandler(), ringBuffer.newBarrier());
+        myDisruptor.handleEventsWith(eventProcessor);
+        myDisruptor.start();
+
+        // 一次性发布一整批，消费者会把它们作为同一批消费
+        for (int i = 0; i < 10; i++) {
+            myDisruptor.publishEvent(PRICE_TRANSLATOR, i);
+        }
+
+        MySequence consumeSequence = eventProcessor.getCurrentConsumeSequence();
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(100);
+            System.out.println("批次进行中，消费序列=" + consumeSequence.get());
+        }
+
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+}
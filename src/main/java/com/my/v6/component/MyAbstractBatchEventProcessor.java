@@ -0,0 +1,162 @@
+package com.my.v6.component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单线程消费者的公共部分（运行状态、主循环、批次划分、超时/批次开始回调、异常处理）
+ * 子类（MyBatchEventProcessor、MyLongBatchEventProcessor、MyLongPairBatchEventProcessor）只负责把一批事件从ringBuffer中取出来交给对应的eventHandler
+ */
+public abstract class MyAbstractBatchEventProcessor implements MyEventProcessor {
+
+    private final MySequence currentConsumeSequence;
+    private final MySequenceBarrier mySequenceBarrier;
+    private final MyTimeoutHandler myTimeoutHandler;
+    private final MyBatchStartAware myBatchStartAware;
+    /**
+     * 单次批处理最多消费的事件数量
+     * 消费者落后很多时，如果一次性消费完所有可用事件，批次会无限长，依赖当前消费者的下游也要等到整批结束才能推进
+     * */
+    private final int maxBatchSize;
+    /**
+     * 下一个需要消费的序列
+     * 子类在consumeBatch中每消费完一个事件都需要推进它，eventHandler抛出异常时，它就是消费失败的那个序列
+     * */
+    protected long nextConsumerIndex;
+    /**
+     * 消费者的运行状态（区分"未启动"和"已停止"：在线程真正开始运行之前调用halt，线程开始运行后也能感知到已被停止）
+     * */
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+
+    /**
+     * @param myEventConsumer 用户自定义的eventHandler（用于检测可选的扩展接口）
+     * @param maxBatchSize 单次批处理最多消费的事件数量
+     * @param currentConsumeSequence 当前消费者的消费序列，消费者会从其之后开始消费
+     * */
+    protected MyAbstractBatchEventProcessor(Object myEventConsumer,
+                                            MySequenceBarrier mySequenceBarrier,
+                                            int maxBatchSize,
+                                            MySequence currentConsumeSequence) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.currentConsumeSequence = currentConsumeSequence;
+        this.mySequenceBarrier = mySequenceBarrier;
+        // 用户自定义的eventHandler可以选择实现MyTimeoutHandler接口，感知等待超时
+        this.myTimeoutHandler = (myEventConsumer instanceof MyTimeoutHandler) ? (MyTimeoutHandler) myEventConsumer : null;
+        // 用户自定义的eventHandler可以选择实现MyBatchStartAware接口，感知每一批事件的开始
+        this.myBatchStartAware = (myEventConsumer instanceof MyBatchStartAware) ? (MyBatchStartAware) myEventConsumer : null;
+    }
+
+    /**
+     * 消费[nextConsumerIndex, endOfBatchIndex]区间内的事件，每消费完一个事件就将nextConsumerIndex推进到下一个序列
+     * @param endOfBatchIndex 本批次的最后一个序列
+     * */
+    protected abstract void consumeBatch(long endOfBatchIndex);
+
+    @Override
+    public void run() {
+        // 一开始运行的时候，状态为IDLE，此时将状态置为RUNNING，表示开始运行
+        if (!running.compareAndSet(IDLE, RUNNING)) {
+            if (running.get() == RUNNING) {
+                throw new IllegalStateException("Thread is already running");
+            }
+            // 线程开始运行之前就已经被halt了，直接结束（重置为IDLE，允许再次启动）
+            running.set(IDLE);
+            return;
+        }
+        this.mySequenceBarrier.clearAlert();
+        // cas成功之后、clearAlert之前被halt的话，alert标记会被清除掉，这里需要再检查一次状态，否则消费者永远无法退出
+        if (running.get() != RUNNING) {
+            running.set(IDLE);
+            return;
+        }
+
+        // 下一个需要消费的下标
+        this.nextConsumerIndex = currentConsumeSequence.get() + 1;
+
+        // 致命异常（为null代表没有发生）
+        MyFatalEventException fatalException = null;
+
+        // 消费者线程主循环逻辑，不断的尝试获取事件并进行消费（为了让代码更简单，暂不考虑优雅停止消费者线程的功能）
+        while(true) {
+            try {
+                // 如果nextConsumerIndex位置上有正确的生产者生产的元素，那么就会返回nextConsumerIndex，消费者就可以正常消费
+                // 否则，根据WaitStrategy进行相应的处理，可能是阻塞等待
+                final long availableConsumeIndex = this.mySequenceBarrier.getAvailableConsumeSequence(this.nextConsumerIndex);
+                // 本批次最多消费到endOfBatchIndex（受maxBatchSize限制），剩余的事件下一次循环再消费
+                final long endOfBatchIndex = Math.min(availableConsumeIndex, this.nextConsumerIndex + this.maxBatchSize - 1);
+
+                // 通知eventHandler这一批事件的数量以及起始序列
+                if (this.myBatchStartAware != null && endOfBatchIndex >= this.nextConsumerIndex) {
+                    this.myBatchStartAware.onBatchStart(endOfBatchIndex - this.nextConsumerIndex + 1, this.nextConsumerIndex);
+                }
+
+                // 批处理，一次主循环消费N个事件
+                consumeBatch(endOfBatchIndex);
+
+                // 更新当前消费者的消费的序列（lazySet，不需要生产者实时的强感知刷缓存，性能更好，因为生产者自己也不是实时的读消费者序列的）
+                this.currentConsumeSequence.lazySet(endOfBatchIndex);
+            } catch (final MyTimeoutException ex) {
+                // 等待超时（一段时间内没有新的事件），通知eventHandler
+                notifyTimeout(this.currentConsumeSequence.get());
+            } catch (final MyAlertException ex) {
+                // 被外部alert打断，检查running标记
+                if (running.get() != RUNNING) {
+                    // 已经被halt了, break跳出主循环，运行结束
+                    break;
+                }
+            } catch (final MyFatalEventException ex) {
+                // 致命异常，不推进消费序列（这一批中的事件对生产者、下游消费者都不可见），停止运行
+                fatalException = ex;
+                break;
+            } catch (final Throwable ex) {
+                // 发生异常，跳过消费失败的事件，消费进度推进到该事件（lazySet 原理同上），之后从下一个事件继续消费
+                // 这一批中在它之前的事件都已经消费过了，不会重复消费
+                this.currentConsumeSequence.lazySet(this.nextConsumerIndex);
+                this.nextConsumerIndex++;
+            }
+        }
+
+        // 运行结束，重置为IDLE（允许再次启动）
+        running.set(IDLE);
+
+        if (fatalException != null) {
+            throw fatalException;
+        }
+    }
+
+    private void notifyTimeout(final long availableSequence) {
+        if (this.myTimeoutHandler == null) {
+            return;
+        }
+
+        try {
+            this.myTimeoutHandler.onTimeout(availableSequence);
+        } catch (Throwable ex) {
+            // 超时回调中的异常不影响消费者继续运行（忽略）
+        }
+    }
+
+    @Override
+    public MySequence getCurrentConsumeSequence() {
+        return this.currentConsumeSequence;
+    }
+
+    @Override
+    public void halt() {
+        // 当前消费者状态设置为停止
+        running.set(HALTED);
+        // 唤醒消费者线程（令其能立即检查到状态为停止）
+        this.mySequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running.get() == RUNNING;
+    }
+
+}
@@ -1,84 +1,75 @@
 package com.my.v6.component;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 /**
  * 单线程消费者
  * @param <T>
  */
-public class MyBatchEventProcessor<T> implements MyEventProcessor {
+public class MyBatchEventProcessor<T> extends MyAbstractBatchEventProcessor {
 
-    private final MySequence currentConsumeSequence = new MySequence(-1);
     private final MyRingBuffer<T> myRingBuffer;
     private final MyEventHandler<T> myEventConsumer;
-    private final MySequenceBarrier mySequenceBarrier;
-    private final AtomicBoolean running = new AtomicBoolean();
+    /**
+     * 延迟统计（为null代表未开启）
+     * */
+    private MyLatencyRecorder myLatencyRecorder;
 
     public MyBatchEventProcessor(MyRingBuffer<T> myRingBuffer,
                                  MyEventHandler<T> myEventConsumer,
                                  MySequenceBarrier mySequenceBarrier) {
-        this.myRingBuffer = myRingBuffer;
-        this.myEventConsumer = myEventConsumer;
-        this.mySequenceBarrier = mySequenceBarrier;
+        this(myRingBuffer, myEventConsumer, mySequenceBarrier, Integer.MAX_VALUE);
     }
 
-    @Override
-    public void run() {
-        // 一开始运行的时候，running为false，此时将running置为true，表示开始运行
-        if (!running.compareAndSet(false, true)) {
-            throw new IllegalStateException("Thread is already running");
-        }
-        this.mySequenceBarrier.clearAlert();
-
-        // 下一个需要消费的下标
-        long nextConsumerIndex = currentConsumeSequence.get() + 1;
-
-        // 消费者线程主循环逻辑，不断的尝试获取事件并进行消费（为了让代码更简单，暂不考虑优雅停止消费者线程的功能）
-        while(true) {
-            try {
-                // 如果nextConsumerIndex位置上有正确的生产者生产的元素，那么就会返回nextConsumerIndex，消费者就可以正常消费
-                // 否则，根据WaitStrategy进行相应的处理，可能是阻塞等待
-                long availableConsumeIndex = this.mySequenceBarrier.getAvailableConsumeSequence(nextConsumerIndex);
-
-                while (nextConsumerIndex <= availableConsumeIndex) {
-                    // 取出可以消费的下标对应的事件，交给eventConsumer消费
-                    T event = myRingBuffer.get(nextConsumerIndex);
-                    this.myEventConsumer.consume(event, nextConsumerIndex, nextConsumerIndex == availableConsumeIndex);
-                    // 批处理，一次主循环消费N个事件（下标加1，获取下一个）
-                    nextConsumerIndex++;
-                }
+    /**
+     * @param maxBatchSize 单次批处理最多消费的事件数量，达到后会先更新消费序列，再继续消费剩余的事件
+     * */
+    public MyBatchEventProcessor(MyRingBuffer<T> myRingBuffer,
+                                 MyEventHandler<T> myEventConsumer,
+                                 MySequenceBarrier mySequenceBarrier,
+                                 int maxBatchSize) {
+        this(myRingBuffer, myEventConsumer, mySequenceBarrier, maxBatchSize, new MySequence(-1));
+    }
 
-                // 更新当前消费者的消费的序列（lazySet，不需要生产者实时的强感知刷缓存，性能更好，因为生产者自己也不是实时的读消费者序列的）
-                this.currentConsumeSequence.lazySet(availableConsumeIndex);
-            } catch (final MyAlertException ex) {
-                // 被外部alert打断，检查running标记
-                if (!running.get()) {
-                    // running == false, break跳出主循环，运行结束
-                    break;
-                }
-            } catch (final Throwable ex) {
-                // 发生异常，消费进度依然推进（跳过这一批拉取的数据）（lazySet 原理同上）
-                this.currentConsumeSequence.lazySet(nextConsumerIndex);
-                nextConsumerIndex++;
-            }
+    /**
+     * @param currentConsumeSequence 指定当前消费者的消费序列（例如MyMappedRingBuffer中持久化的消费者序列），消费者会从其之后开始消费
+     * */
+    public MyBatchEventProcessor(MyRingBuffer<T> myRingBuffer,
+                                 MyEventHandler<T> myEventConsumer,
+                                 MySequenceBarrier mySequenceBarrier,
+                                 int maxBatchSize,
+                                 MySequence currentConsumeSequence) {
+        super(myEventConsumer, mySequenceBarrier, maxBatchSize, currentConsumeSequence);
+        this.myRingBuffer = myRingBuffer;
+        this.myEventConsumer = myEventConsumer;
+        // 可以主动汇报消费进度的eventHandler，将当前消费者的消费序列交给它
+        if (myEventConsumer instanceof MySequenceReportingEventHandler) {
+            ((MySequenceReportingEventHandler<T>) myEventConsumer).setSequenceCallback(currentConsumeSequence);
         }
     }
 
-    public MySequence getCurrentConsumeSequence() {
-        return this.currentConsumeSequence;
+    /**
+     * 开启延迟统计（需要在消费者启动之前设置）
+     * */
+    public void setLatencyRecorder(MyLatencyRecorder myLatencyRecorder) {
+        this.myLatencyRecorder = myLatencyRecorder;
     }
 
-    @Override
-    public void halt() {
-        // 当前消费者状态设置为停止
-        running.set(false);
-        // 唤醒消费者线程（令其能立即检查到状态为停止）
-        this.mySequenceBarrier.alert();
+    MyLatencyRecorder getLatencyRecorder() {
+        return this.myLatencyRecorder;
     }
 
     @Override
-    public boolean isRunning() {
-        return this.running.get();
+    protected void consumeBatch(long endOfBatchIndex) {
+        long sequence;
+        while ((sequence = this.nextConsumerIndex) <= endOfBatchIndex) {
+            // 取出可以消费的下标对应的事件，交给eventConsumer消费
+            T event = myRingBuffer.get(sequence);
+            this.myEventConsumer.consume(event, sequence, sequence == endOfBatchIndex);
+            if (this.myLatencyRecorder != null) {
+                this.myLatencyRecorder.recordConsumed(sequence);
+            }
+            // 下标加1，获取下一个
+            this.nextConsumerIndex = sequence + 1;
+        }
     }
 
 }
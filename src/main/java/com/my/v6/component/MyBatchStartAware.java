@@ -0,0 +1,18 @@
+package com.my.v6.component;
+
+/**
+ * 事件处理器的可选扩展接口（仿Disruptor.BatchStartAware）
+ * MyEventHandler同时实现该接口时，在每一批事件开始消费之前会被回调
+ * 可以用于按批次大小预分配缓冲区、每批开启一个事务等
+ * 只有非空的批次才会回调；设置了maxBatchSize时，被截断出来的每一个子批次都会单独回调一次（batchSize不超过maxBatchSize）
+ * */
+public interface MyBatchStartAware {
+
+    /**
+     * 一批事件开始消费之前回调
+     * @param batchSize 这一批事件的数量
+     * @param startSequence 这一批事件中第一个事件的序列
+     * */
+    void onBatchStart(long batchSize, long startSequence);
+
+}
@@ -9,20 +9,29 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * 阻塞等待策略
  */
-public class MyBlockingWaitStrategy implements MyWaitStrategy {
+public class MyBlockingWaitStrategy implements MyWaitStrategy, MyWaitStrategyMetrics {
 
     private final Lock lock = new ReentrantLock();
     private final Condition processorNotifyCondition = lock.newCondition();
 
+    /**
+     * 消费者阻塞等待的次数（MySequence自带填充，避免和其它热点字段产生伪共享）
+     * */
+    private final MySequence blockCount = new MySequence(0);
+
     @Override
-    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences) throws InterruptedException {
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws InterruptedException, MyAlertException {
         // 强一致的读生产者序列号
         // 如果ringBuffer的生产者下标小于当前消费者所需的下标，说明目前消费者消费速度大于生产者生产速度
         if (currentProducerSequence.get() < currentConsumeSequence) {
             lock.lock();
             try {
                 while (currentProducerSequence.get() < currentConsumeSequence) {
+                    // 被唤醒后先检查是否被alert（消费者需要停止），是则抛出MyAlertException跳出等待
+                    mySequenceBarrier.checkAlert();
                     // 消费者的消费速度比生产者的生产速度快时，阻塞等待
+                    blockCount.addAndGet(1);
                     processorNotifyCondition.await();
                 }
             }
@@ -36,6 +45,7 @@ public class MyBlockingWaitStrategy implements MyWaitStrategy {
         if(!dependentSequences.isEmpty()){
             // 受制于屏障中的dependentSequences，用来控制当前消费者消费进度不得超过其所依赖的链路上游的消费者进度
             while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+                mySequenceBarrier.checkAlert();
                 // 由于消费者消费速度一般会很快，所以这里使用自旋阻塞来等待上游消费者进度推进（响应及时，且实现简单）
 
                 // 在jdk9开始引入的Thread.onSpinWait方法，优化自旋性能
@@ -61,4 +71,9 @@ public class MyBlockingWaitStrategy implements MyWaitStrategy {
         }
     }
 
+    @Override
+    public long getBlockCount() {
+        return this.blockCount.get();
+    }
+
 }
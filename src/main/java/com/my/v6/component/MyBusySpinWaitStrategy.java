@@ -0,0 +1,32 @@
+package com.my.v6.component;
+
+import java.util.List;
+
+/**
+ * 忙等待策略（仿Disruptor.BusySpinWaitStrategy）
+ * 消费者线程始终自旋，不让出cpu，延迟最低但会独占一个cpu核心
+ * 适用于消费者线程数小于物理核数，且绑核部署的场景
+ */
+public class MyBusySpinWaitStrategy implements MyWaitStrategy {
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws MyAlertException {
+        long availableSequence;
+
+        // dependentSequences中至少包含了生产者序列（参见MySequenceBarrier构造方法），因此只需要等待依赖序列推进即可
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            mySequenceBarrier.checkAlert();
+            // 在jdk9开始引入的Thread.onSpinWait方法，优化自旋性能
+            // MyThreadHints.onSpinWait();
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 消费者不会阻塞，无需唤醒
+    }
+
+}
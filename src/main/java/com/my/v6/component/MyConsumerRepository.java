@@ -1,20 +1,24 @@
 package com.my.v6.component;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 维护当前disruptor的所有消费者对象信息的仓库（仿Disruptor.ConsumerRepository）
  */
 public class MyConsumerRepository<T> {
 
-    private final ArrayList<MyConsumerInfo> consumerInfos = new ArrayList<>();
+    /**
+     * 支持运行时动态的注册/移除消费者，因此使用写时复制的list（遍历时不会抛出ConcurrentModificationException）
+     * */
+    private final List<MyConsumerInfo> consumerInfos = new CopyOnWriteArrayList<>();
 
     /**
      * 不重写Sequence的hashCode，equals,因为比对的就是原始对象是否相等
      * */
-    private final Map<MySequence, MyConsumerInfo> eventProcessorInfoBySequence = new IdentityHashMap<>();
+    private final Map<MySequence, MyConsumerInfo> eventProcessorInfoBySequence = Collections.synchronizedMap(new IdentityHashMap<>());
 
-    public ArrayList<MyConsumerInfo> getConsumerInfos() {
+    public List<MyConsumerInfo> getConsumerInfos() {
         return consumerInfos;
     }
 
@@ -24,6 +28,18 @@ public class MyConsumerRepository<T> {
         consumerInfos.add(consumerInfo);
     }
 
+    /**
+     * 移除一个单线程消费者
+     * @return 被移除的消费者信息，没有找到则返回null
+     * */
+    public MyConsumerInfo remove(final MyEventProcessor processor) {
+        final MyConsumerInfo consumerInfo = eventProcessorInfoBySequence.remove(processor.getCurrentConsumeSequence());
+        if (consumerInfo != null) {
+            consumerInfos.remove(consumerInfo);
+        }
+        return consumerInfo;
+    }
+
     public void add(final MyWorkerPool<T> workerPool) {
         final MyWorkerPoolInfo<T> workerPoolInfo = new MyWorkerPoolInfo<>(workerPool);
         for (MySequence sequence : workerPool.getCurrentWorkerSequences()) {
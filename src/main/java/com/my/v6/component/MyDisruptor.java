@@ -1,5 +1,14 @@
 package com.my.v6.component;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -8,8 +17,40 @@ public class MyDisruptor<T> {
 
     private final MyRingBuffer<T> ringBuffer;
     private final Executor executor;
+    private final MyWaitStrategy myWaitStrategy;
     private final MyConsumerRepository<T> consumerRepository = new MyConsumerRepository<>();
     private final AtomicBoolean started = new AtomicBoolean(false);
+    /**
+     * start和addEventHandlerAtRuntime共用的锁
+     * 保证运行时注册的消费者要么在start遍历消费者仓库之前注册（由start统一启动），要么在start之后注册（由注册方直接启动），不会被启动两次
+     * */
+    private final Object startLock = new Object();
+    /**
+     * 之后注册的单线程消费者，单次批处理最多消费的事件数量
+     * */
+    private int maxBatchSize = Integer.MAX_VALUE;
+    /**
+     * 之后注册的多线程消费者，每个worker每次cas争抢的最大序列个数
+     * */
+    private int workerClaimSize = 1;
+
+    /**
+     * 注册到JMX的监控指标MBean名称（为null代表未注册）
+     * */
+    private volatile ObjectName metricsObjectName;
+
+    /**
+     * 生产者发布阶段的延迟统计（为null代表未开启延迟统计）
+     * */
+    private MyLatencyStage publishLatencyStage;
+    /**
+     * 消费者序列 -> 该消费者所属的延迟统计阶段（用于下游消费者找到上游阶段）
+     * */
+    private final Map<MySequence, MyLatencyStage> latencyStageBySequence = Collections.synchronizedMap(new IdentityHashMap<>());
+    /**
+     * 用户自定义的事件消费者 -> 对应的延迟记录器
+     * */
+    private final Map<Object, MyLatencyRecorder> latencyRecorderByHandler = Collections.synchronizedMap(new IdentityHashMap<>());
 
     public MyDisruptor(
             final MyEventFactory<T> eventProducer,
@@ -18,23 +59,77 @@ public class MyDisruptor<T> {
             final ProducerType producerType,
             final MyWaitStrategy myWaitStrategy) {
 
-        this.ringBuffer = MyRingBuffer.create(producerType,eventProducer,ringBufferSize,myWaitStrategy);
+        this(MyRingBuffer.create(producerType,eventProducer,ringBufferSize,myWaitStrategy), executor);
+    }
+
+    /**
+     * 基于已经创建好的ringBuffer（例如堆外内存的MyOffHeapRingBuffer）创建disruptor
+     * */
+    public MyDisruptor(final MyRingBuffer<T> ringBuffer, final Executor executor) {
+        this.ringBuffer = ringBuffer;
         this.executor = executor;
+        this.myWaitStrategy = ringBuffer.getWaitStrategy();
+    }
+
+    /**
+     * 开启延迟统计，记录事件从发布到每个消费者处理完成（端到端），以及从上游阶段到每个消费者处理完成（阶段间）的延迟
+     * 必须在注册消费者之前调用
+     * @param sampleInterval 采样间隔（2的幂），每sampleInterval个序列采样一个，用于控制统计本身的开销
+     * */
+    public void enableLatencyTracking(int sampleInterval) {
+        if (!this.consumerRepository.getConsumerInfos().isEmpty()) {
+            throw new IllegalStateException("必须在注册消费者之前开启延迟统计");
+        }
+        this.publishLatencyStage = new MyLatencyStage(ringBuffer.getRingBufferSize(), sampleInterval);
+        this.ringBuffer.setPublishLatencyStage(this.publishLatencyStage);
+    }
+
+    /**
+     * 设置之后注册的单线程消费者（handleEventsWith/then/addEventHandlerAtRuntime）单次批处理最多消费的事件数量
+     * 可以在注册不同的消费者之间调用，为每个消费者设置不同的值
+     * */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 设置之后注册的多线程消费者（handleEventsWithWorkerPool）中每个worker每次cas争抢的最大序列个数
+     * worker数量很多时，调大该值可以减少对workerPool共享序列的cas争抢
+     * */
+    public void setWorkerClaimSize(int workerClaimSize) {
+        if (workerClaimSize < 1) {
+            throw new IllegalArgumentException("workerClaimSize must be greater than 0");
+        }
+        this.workerClaimSize = workerClaimSize;
+    }
+
+    /**
+     * 获得事件消费者对应的延迟记录器（可以在运行时随时读取快照）
+     * @param handler 注册的MyEventHandler或者MyWorkHandler
+     * @return 延迟记录器，未开启延迟统计时返回null
+     * */
+    public MyLatencyRecorder getLatencyRecorder(final Object handler) {
+        return this.latencyRecorderByHandler.get(handler);
     }
 
     /**
      * 启动所有已注册的消费者
      * */
     public void start(){
-        // cas设置启动标识，避免重复启动
-        if (!started.compareAndSet(false, true)) {
-            throw new IllegalStateException("Disruptor只能启动一次");
-        }
+        synchronized (this.startLock) {
+            // cas设置启动标识，避免重复启动
+            if (!started.compareAndSet(false, true)) {
+                throw new IllegalStateException("Disruptor只能启动一次");
+            }
 
-        // 遍历所有的消费者，挨个start启动
-        this.consumerRepository.getConsumerInfos().forEach(
-                item->item.start(this.executor)
-        );
+            // 遍历所有的消费者，挨个start启动
+            this.consumerRepository.getConsumerInfos().forEach(
+                    item->item.start(this.executor)
+            );
+        }
     }
 
     /**
@@ -82,6 +177,40 @@ public class MyDisruptor<T> {
         return false;
     }
 
+    /**
+     * 将当前disruptor的监控指标（生产者序列、消费者序列及延迟、剩余容量、生产者park次数/时间、等待策略阻塞次数）注册到JMX
+     * @param name 当前disruptor的名称（同一个jvm中需要唯一）
+     * */
+    public void registerMBean(final String name) {
+        try {
+            final ObjectName objectName = new ObjectName("com.my.v6:type=MyDisruptor,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new MyDisruptorMetrics(ringBuffer, consumerRepository, myWaitStrategy), objectName);
+            this.metricsObjectName = objectName;
+        } catch (JMException e) {
+            throw new RuntimeException("注册disruptor监控MBean失败", e);
+        }
+    }
+
+    /**
+     * 从JMX中移除当前disruptor的监控指标
+     * */
+    public void unregisterMBean() {
+        final ObjectName objectName = this.metricsObjectName;
+        if (objectName == null) {
+            return;
+        }
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            this.metricsObjectName = null;
+        } catch (JMException e) {
+            throw new RuntimeException("移除disruptor监控MBean失败", e);
+        }
+    }
+
     /**
      * 获得当亲Disruptor的ringBuffer
      * */
@@ -89,6 +218,32 @@ public class MyDisruptor<T> {
         return ringBuffer;
     }
 
+    /**
+     * 通过事件转换器发布一个事件
+     * */
+    public void publishEvent(final MyEventTranslator<T> translator) {
+        ringBuffer.publishEvent(translator);
+    }
+
+    public <A> void publishEvent(final MyEventTranslatorOneArg<T, A> translator, final A arg0) {
+        ringBuffer.publishEvent(translator, arg0);
+    }
+
+    public <A, B> void publishEvent(final MyEventTranslatorTwoArg<T, A, B> translator, final A arg0, final B arg1) {
+        ringBuffer.publishEvent(translator, arg0, arg1);
+    }
+
+    public <A, B, C> void publishEvent(final MyEventTranslatorThreeArg<T, A, B, C> translator, final A arg0, final B arg1, final C arg2) {
+        ringBuffer.publishEvent(translator, arg0, arg1, arg2);
+    }
+
+    /**
+     * 通过事件转换器批量发布事件，arg0数组中的每个参数对应一个事件
+     * */
+    public <A> void publishEvents(final MyEventTranslatorOneArg<T, A> translator, final A[] arg0) {
+        ringBuffer.publishEvents(translator, arg0);
+    }
+
     /**
      * 注册单线程消费者 (无上游依赖消费者，仅依赖生产者序列)
      * */
@@ -98,6 +253,22 @@ public class MyDisruptor<T> {
         return createEventProcessors(new MySequence[0], myEventHandlers);
     }
 
+    /**
+     * 注册用户自己创建好的消费者（例如使用了MyMappedRingBuffer中持久化的消费者序列的消费者）
+     * 消费者需要基于当前disruptor的ringBuffer.newBarrier()创建
+     * */
+    public MyEventHandlerGroup<T> handleEventsWith(final MyEventProcessor... processors) {
+        final MySequence[] processorSequences = new MySequence[processors.length];
+        for (int i = 0; i < processors.length; i++) {
+            processorSequences[i] = processors[i].getCurrentConsumeSequence();
+            consumerRepository.add(processors[i]);
+        }
+
+        updateGatingSequencesForNextInChain(new MySequence[0], processorSequences);
+
+        return new MyEventHandlerGroup<>(this, this.consumerRepository, processorSequences);
+    }
+
     /**
      * 注册单线程消费者 (有上游依赖消费者，仅依赖生产者序列)
      * @param barrierSequences 依赖的序列屏障
@@ -113,11 +284,24 @@ public class MyDisruptor<T> {
         int i = 0;
         for(MyEventHandler<T> myEventConsumer : myEventHandlers){
             final MyBatchEventProcessor<T> batchEventProcessor =
-                    new MyBatchEventProcessor<>(ringBuffer, myEventConsumer, barrier);
+                    new MyBatchEventProcessor<>(ringBuffer, myEventConsumer, barrier, maxBatchSize);
 
             processorSequences[i] = batchEventProcessor.getCurrentConsumeSequence();
             i++;
 
+            if (publishLatencyStage != null) {
+                final MyLatencyStage latencyStage = newLatencyStage();
+                if (myEventConsumer instanceof MyPartitionedEventHandler) {
+                    // 分区workerPool中的worker只记录自己分区的事件，延迟记录器以用户自定义的workHandler为key
+                    final MyPartitionedEventHandler<T> partitionedEventHandler = (MyPartitionedEventHandler<T>) myEventConsumer;
+                    partitionedEventHandler.setLatencyRecorder(
+                            createLatencyRecorder(partitionedEventHandler.getWorkHandler(), barrierSequences, latencyStage));
+                } else {
+                    batchEventProcessor.setLatencyRecorder(createLatencyRecorder(myEventConsumer, barrierSequences, latencyStage));
+                }
+                latencyStageBySequence.put(batchEventProcessor.getCurrentConsumeSequence(), latencyStage);
+            }
+
             // consumer对象都维护起来，便于后续start时启动
             consumerRepository.add(batchEventProcessor);
         }
@@ -128,6 +312,82 @@ public class MyDisruptor<T> {
         return new MyEventHandlerGroup<>(this,this.consumerRepository,processorSequences);
     }
 
+    /**
+     * 在运行时动态的注册一个单线程消费者（不需要停止ringBuffer，也不会阻塞生产者）
+     * 新的消费者从注册时刻的生产者序列之后开始消费，不会消费之前已经发布的历史事件
+     * @param myEventHandler 用户自定义的事件消费者
+     * @param barrierSequences 依赖的上游消费者序列（为空则只依赖生产者序列）
+     * @return 新创建的消费者，用于后续的removeEventHandlerAtRuntime
+     * */
+    public MyBatchEventProcessor<T> addEventHandlerAtRuntime(
+            final MyEventHandler<T> myEventHandler, final MySequence... barrierSequences) {
+        final MySequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+        final MyBatchEventProcessor<T> batchEventProcessor =
+                new MyBatchEventProcessor<>(ringBuffer, myEventHandler, barrier, maxBatchSize);
+
+        if (publishLatencyStage != null) {
+            final MyLatencyStage latencyStage = newLatencyStage();
+            batchEventProcessor.setLatencyRecorder(createLatencyRecorder(myEventHandler, barrierSequences, latencyStage));
+            latencyStageBySequence.put(batchEventProcessor.getCurrentConsumeSequence(), latencyStage);
+        }
+
+        // 注册为生产者的gating序列。MySequenceGroups.addSequences会cas的替换gating数组，并把新序列的值设置为当前生产者序列
+        // 因此新消费者从当前的生产者序列开始消费，生产者也不会覆盖掉其还未消费的事件
+        ringBuffer.addConsumerSequence(batchEventProcessor.getCurrentConsumeSequence());
+        synchronized (this.startLock) {
+            consumerRepository.add(batchEventProcessor);
+
+            if (started.get()) {
+                // disruptor已经启动了，直接启动新的消费者（否则等到start时统一启动）
+                executor.execute(batchEventProcessor);
+            }
+        }
+
+        return batchEventProcessor;
+    }
+
+    /**
+     * 在运行时动态的移除一个通过addEventHandlerAtRuntime注册的单线程消费者
+     * 注意：不能移除被其它消费者依赖的消费者（下游消费者会因为上游序列不再推进而永远阻塞）
+     * */
+    public void removeEventHandlerAtRuntime(final MyBatchEventProcessor<T> batchEventProcessor) {
+        // 先停止消费者线程，再从生产者的gating序列中移除，生产者不再受其消费进度的限制
+        batchEventProcessor.halt();
+        ringBuffer.removeConsumerSequence(batchEventProcessor.getCurrentConsumeSequence());
+        consumerRepository.remove(batchEventProcessor);
+        // 延迟统计的阶段（ringBuffer大小的时间戳数组）和记录器也一并移除，否则每次添加/移除都会泄漏
+        latencyStageBySequence.remove(batchEventProcessor.getCurrentConsumeSequence());
+        final MyLatencyRecorder latencyRecorder = batchEventProcessor.getLatencyRecorder();
+        if (latencyRecorder != null) {
+            latencyRecorderByHandler.values().remove(latencyRecorder);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> MyEventHandler<E>[] newEventHandlerArray(int length) {
+        return (MyEventHandler<E>[]) new MyEventHandler<?>[length];
+    }
+
+    private MyLatencyStage newLatencyStage() {
+        return new MyLatencyStage(ringBuffer.getRingBufferSize(), publishLatencyStage.getSampleInterval());
+    }
+
+    private MyLatencyRecorder createLatencyRecorder(final Object handler, final MySequence[] barrierSequences, final MyLatencyStage latencyStage) {
+        // 找到所有上游消费者所属的阶段（workerPool的多个序列属于同一个阶段，需要去重）
+        final List<MyLatencyStage> upstreamStages = new ArrayList<>();
+        for (MySequence barrierSequence : barrierSequences) {
+            final MyLatencyStage upstreamStage = latencyStageBySequence.get(barrierSequence);
+            if (upstreamStage != null && !upstreamStages.contains(upstreamStage)) {
+                upstreamStages.add(upstreamStage);
+            }
+        }
+
+        final MyLatencyRecorder latencyRecorder = new MyLatencyRecorder(
+                publishLatencyStage, upstreamStages.toArray(new MyLatencyStage[0]), latencyStage);
+        latencyRecorderByHandler.put(handler, latencyRecorder);
+        return latencyRecorder;
+    }
+
     private void updateGatingSequencesForNextInChain(final MySequence[] barrierSequences, final MySequence[] processorSequences) {
         if (processorSequences.length != 0) {
             // 这是一个优化操作：
@@ -147,6 +407,34 @@ public class MyDisruptor<T> {
         }
     }
 
+    /**
+     * 注册按key分区的多线程消费者 (无上游依赖消费者，仅依赖生产者序列)
+     * */
+    @SafeVarargs
+    public final MyEventHandlerGroup<T> handleEventsWithPartitionedWorkerPool(
+            final MyPartitionKeyExtractor<T> myPartitionKeyExtractor, final MyWorkHandler<T>... myWorkHandlers) {
+        return createPartitionedWorkerPool(new MySequence[0], myPartitionKeyExtractor, myWorkHandlers);
+    }
+
+    /**
+     * 注册按key分区的多线程消费者 (有上游依赖消费者，仅依赖生产者序列)
+     * 和createWorkerPool的区别：每个worker都是一个单线程消费者（MyBatchEventProcessor），只消费key被分配到自己分区的事件
+     * 同一个key的事件总是由同一个worker按序消费；worker之间没有共享的workSequence，不存在cas争抢
+     * @param barrierSequences 依赖的序列屏障
+     * @param myPartitionKeyExtractor 事件key的提取器
+     * @param myWorkHandlers 用户自定义的事件消费者集合（第i个workHandler消费第i个分区）
+     * */
+    public MyEventHandlerGroup<T> createPartitionedWorkerPool(
+            final MySequence[] barrierSequences,
+            final MyPartitionKeyExtractor<T> myPartitionKeyExtractor,
+            final MyWorkHandler<T>[] myWorkHandlers) {
+        final MyEventHandler<T>[] partitionedHandlers = newEventHandlerArray(myWorkHandlers.length);
+        for (int i = 0; i < myWorkHandlers.length; i++) {
+            partitionedHandlers[i] = new MyPartitionedEventHandler<>(myPartitionKeyExtractor, myWorkHandlers[i], i, myWorkHandlers.length);
+        }
+        return createEventProcessors(barrierSequences, partitionedHandlers);
+    }
+
     /**
      * 注册多线程消费者 (有上游依赖消费者，仅依赖生产者序列)
      * @param barrierSequences 依赖的序列屏障
@@ -155,7 +443,19 @@ public class MyDisruptor<T> {
     public MyEventHandlerGroup<T> createWorkerPool(
             final MySequence[] barrierSequences, final MyWorkHandler<T>[] myWorkHandlers) {
         final MySequenceBarrier sequenceBarrier = ringBuffer.newBarrier(barrierSequences);
-        final MyWorkerPool<T> workerPool = new MyWorkerPool<>(ringBuffer, sequenceBarrier, myWorkHandlers);
+        final MyWorkerPool<T> workerPool = new MyWorkerPool<>(ringBuffer, sequenceBarrier, workerClaimSize, myWorkHandlers);
+
+        if (publishLatencyStage != null) {
+            // workerPool中的所有worker属于同一个阶段，但每个worker线程有自己的延迟记录器（单线程写入）
+            final MyLatencyStage latencyStage = newLatencyStage();
+            final List<MyWorkProcessor<T>> workProcessors = workerPool.getWorkProcessors();
+            for (int i = 0; i < workProcessors.size(); i++) {
+                workProcessors.get(i).setLatencyRecorder(createLatencyRecorder(myWorkHandlers[i], barrierSequences, latencyStage));
+            }
+            for (MySequence sequence : workerPool.getCurrentWorkerSequences()) {
+                latencyStageBySequence.put(sequence, latencyStage);
+            }
+        }
 
         // consumer都保存起来，便于start启动
         consumerRepository.add(workerPool);
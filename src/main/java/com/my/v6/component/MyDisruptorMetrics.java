@@ -0,0 +1,113 @@
+package com.my.v6.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MyDisruptor的JMX监控指标实现
+ * 所有指标都是在被读取时实时计算的，不会在生产者/消费者的热点路径上引入额外开销
+ * 运行时动态注册/移除的消费者也会被实时的反映出来
+ * */
+public class MyDisruptorMetrics implements MyDisruptorMetricsMBean {
+
+    private final MyRingBuffer<?> ringBuffer;
+    private final MyConsumerRepository<?> consumerRepository;
+    private final MyWaitStrategy myWaitStrategy;
+
+    public MyDisruptorMetrics(MyRingBuffer<?> ringBuffer, MyConsumerRepository<?> consumerRepository, MyWaitStrategy myWaitStrategy) {
+        this.ringBuffer = ringBuffer;
+        this.consumerRepository = consumerRepository;
+        this.myWaitStrategy = myWaitStrategy;
+    }
+
+    @Override
+    public long getCursor() {
+        return ringBuffer.getCurrentProducerSequence().get();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return ringBuffer.getRingBufferSize();
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public String[] getConsumerNames() {
+        List<String> names = new ArrayList<>();
+        List<MyConsumerInfo> consumerInfos = consumerRepository.getConsumerInfos();
+        for (int i = 0; i < consumerInfos.size(); i++) {
+            MyConsumerInfo consumerInfo = consumerInfos.get(i);
+            MySequence[] sequences = consumerInfo.getSequences();
+            if (consumerInfo instanceof MyWorkerPoolInfo) {
+                // workerPool的序列集合中，最后一个是workerPool自身的workSequence
+                for (int k = 0; k < sequences.length - 1; k++) {
+                    names.add("workerPool-" + i + "[" + k + "]");
+                }
+                names.add("workerPool-" + i + "[workSequence]");
+            } else {
+                names.add("processor-" + i);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public long[] getConsumerSequences() {
+        List<MySequence> sequences = allConsumerSequences();
+        long[] values = new long[sequences.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sequences.get(i).get();
+        }
+        return values;
+    }
+
+    @Override
+    public long[] getConsumerLags() {
+        long cursor = getCursor();
+        long[] values = getConsumerSequences();
+        for (int i = 0; i < values.length; i++) {
+            // workerPool中的序列是先争抢再消费的，可能会领先于cursor，此时视为没有延迟
+            values[i] = Math.max(0, cursor - values[i]);
+        }
+        return values;
+    }
+
+    @Override
+    public long getMaxConsumerLag() {
+        long maxLag = 0;
+        for (long lag : getConsumerLags()) {
+            maxLag = Math.max(maxLag, lag);
+        }
+        return maxLag;
+    }
+
+    @Override
+    public long getProducerParkCount() {
+        return ringBuffer.getProducerParkCount();
+    }
+
+    @Override
+    public long getProducerParkNanos() {
+        return ringBuffer.getProducerParkNanos();
+    }
+
+    @Override
+    public long getWaitStrategyBlockCount() {
+        return (myWaitStrategy instanceof MyWaitStrategyMetrics) ? ((MyWaitStrategyMetrics) myWaitStrategy).getBlockCount() : 0;
+    }
+
+    private List<MySequence> allConsumerSequences() {
+        List<MySequence> sequences = new ArrayList<>();
+        for (MyConsumerInfo consumerInfo : consumerRepository.getConsumerInfos()) {
+            for (MySequence sequence : consumerInfo.getSequences()) {
+                sequences.add(sequence);
+            }
+        }
+        return sequences;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.my.v6.component;
+
+/**
+ * MyDisruptor的JMX监控指标（标准MBean接口）
+ * */
+public interface MyDisruptorMetricsMBean {
+
+    /**
+     * 当前已发布的生产者序列（cursor）
+     * */
+    long getCursor();
+
+    int getBufferSize();
+
+    /**
+     * ringBuffer当前的剩余容量
+     * */
+    long getRemainingCapacity();
+
+    /**
+     * 每个消费者序列的名称，和getConsumerSequences、getConsumerLags一一对应
+     * */
+    String[] getConsumerNames();
+
+    long[] getConsumerSequences();
+
+    /**
+     * 每个消费者落后于生产者的序列数
+     * */
+    long[] getConsumerLags();
+
+    long getMaxConsumerLag();
+
+    /**
+     * 生产者由于ringBuffer已满而park等待的次数
+     * */
+    long getProducerParkCount();
+
+    long getProducerParkNanos();
+
+    /**
+     * 消费者在等待策略上阻塞的次数（等待策略不会阻塞时为0）
+     * */
+    long getWaitStrategyBlockCount();
+
+}
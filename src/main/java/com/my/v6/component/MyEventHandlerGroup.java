@@ -34,4 +34,16 @@ public class MyEventHandlerGroup<T> {
         return disruptor.createWorkerPool(sequences, handlers);
     }
 
+    @SafeVarargs
+    public final MyEventHandlerGroup<T> thenHandleEventsWithPartitionedWorkerPool(
+            final MyPartitionKeyExtractor<T> myPartitionKeyExtractor, final MyWorkHandler<T>... handlers) {
+        return handleEventsWithPartitionedWorkerPool(myPartitionKeyExtractor, handlers);
+    }
+
+    @SafeVarargs
+    public final MyEventHandlerGroup<T> handleEventsWithPartitionedWorkerPool(
+            final MyPartitionKeyExtractor<T> myPartitionKeyExtractor, final MyWorkHandler<T>... handlers) {
+        return disruptor.createPartitionedWorkerPool(sequences, myPartitionKeyExtractor, handlers);
+    }
+
 }
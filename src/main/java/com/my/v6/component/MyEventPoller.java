@@ -0,0 +1,104 @@
+package com.my.v6.component;
+
+/**
+ * 拉模式的消费者（仿Disruptor.EventPoller）
+ * 不占用单独的消费者线程，由使用方在自己的线程中（例如网络事件循环）主动调用poll拉取当前所有可用的事件
+ * poll永远不会阻塞，因此一个线程可以轮流poll多个ringBuffer
+ *
+ * 和MyBatchEventProcessor一样，poller的消费序列需要注册为ringBuffer的gating序列：
+ * ringBuffer.addGatingConsumerSequenceList(poller.getSequence())
+ * */
+public class MyEventPoller<T> {
+
+    private final MyRingBuffer<T> myRingBuffer;
+    private final MyProducerSequencer myProducerSequencer;
+    /**
+     * 当前poller的消费序列
+     * */
+    private final MySequence sequence;
+    /**
+     * 依赖的上游消费者序列（为空时只依赖生产者序列）
+     * */
+    private final MySequence[] dependentSequences;
+
+    public MyEventPoller(MyRingBuffer<T> myRingBuffer, MyProducerSequencer myProducerSequencer,
+                         MySequence sequence, MySequence... dependentSequences) {
+        this.myRingBuffer = myRingBuffer;
+        this.myProducerSequencer = myProducerSequencer;
+        this.sequence = sequence;
+        this.dependentSequences = dependentSequences;
+    }
+
+    /**
+     * poll的处理结果
+     * */
+    public enum PollState {
+        /**
+         * 本次处理了至少一个事件
+         * */
+        PROCESSING,
+        /**
+         * 生产者已经发布了新的事件，但是被依赖的上游消费者还没有处理完（或多线程生产者的序列还没有全部发布），暂时无法处理
+         * */
+        GATING,
+        /**
+         * 没有新的事件
+         * */
+        IDLE
+    }
+
+    /**
+     * poller的事件处理器接口
+     * */
+    public interface Handler<T> {
+
+        /**
+         * 消费者消费事件
+         * @param event 事件对象本身
+         * @param sequence 事件对象在队列里的序列
+         * @param endOfBatch 当前事件是否是本次poll中的最后一个可用事件
+         * @return true继续处理本次poll中剩余的事件，false本次poll到此为止（剩余的事件留到下一次poll）
+         * */
+        boolean onEvent(T event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * 处理当前所有可用的事件，不会阻塞
+     * handler抛出异常时，之前已经处理完的事件的消费进度会被提交，异常抛给调用方
+     * */
+    public PollState poll(final Handler<T> handler) {
+        final long currentSequence = this.sequence.get();
+        long nextSequence = currentSequence + 1;
+        final long producerSequence = this.myProducerSequencer.getCurrentProducerSequence().get();
+        final long gatingSequence = this.dependentSequences.length == 0
+                ? producerSequence : SequenceUtil.getMinimumSequence(producerSequence, this.dependentSequences);
+        final long availableSequence = this.myProducerSequencer.getHighestPublishedSequence(nextSequence, gatingSequence);
+
+        if (nextSequence <= availableSequence) {
+            boolean processNextEvent;
+            long processedSequence = currentSequence;
+
+            try {
+                do {
+                    final T event = this.myRingBuffer.get(nextSequence);
+                    processNextEvent = handler.onEvent(event, nextSequence, nextSequence == availableSequence);
+                    processedSequence = nextSequence;
+                    nextSequence++;
+                } while (nextSequence <= availableSequence && processNextEvent);
+            } finally {
+                // 提交消费进度（lazySet，原理同MyBatchEventProcessor）
+                this.sequence.lazySet(processedSequence);
+            }
+
+            return PollState.PROCESSING;
+        } else if (producerSequence >= nextSequence) {
+            return PollState.GATING;
+        } else {
+            return PollState.IDLE;
+        }
+    }
+
+    public MySequence getSequence() {
+        return this.sequence;
+    }
+}
@@ -0,0 +1,17 @@
+package com.my.v6.component;
+
+/**
+ * 事件转换器（仿Disruptor.EventTranslator）
+ * 生产者通过事件转换器填充ringBuffer中预分配的事件对象，由ringBuffer负责序列的申请与发布
+ * 避免了用户手动next、get、publish时忘记publish（导致整个ringBuffer卡死）的问题
+ * */
+public interface MyEventTranslator<T> {
+
+    /**
+     * 将数据填充到事件对象中
+     * @param event 需要填充数据的事件对象（ringBuffer中预分配的）
+     * @param sequence 事件对象对应的生产者序列
+     * */
+    void translateTo(T event, long sequence);
+
+}
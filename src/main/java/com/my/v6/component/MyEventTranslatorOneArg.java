@@ -0,0 +1,17 @@
+package com.my.v6.component;
+
+/**
+ * 带一个参数的事件转换器（仿Disruptor.EventTranslatorOneArg）
+ * 需要的数据通过参数传入而不是通过lambda捕获，这样lambda就不会捕获外部变量，jit可以复用同一个实例，不会为每个事件分配新的lambda对象
+ * */
+public interface MyEventTranslatorOneArg<T, A> {
+
+    /**
+     * 将数据填充到事件对象中
+     * @param event 需要填充数据的事件对象（ringBuffer中预分配的）
+     * @param sequence 事件对象对应的生产者序列
+     * @param arg0 用户传入的参数
+     * */
+    void translateTo(T event, long sequence, A arg0);
+
+}
@@ -0,0 +1,18 @@
+package com.my.v6.component;
+
+/**
+ * 带三个参数的事件转换器（仿Disruptor.EventTranslatorThreeArg）
+ * */
+public interface MyEventTranslatorThreeArg<T, A, B, C> {
+
+    /**
+     * 将数据填充到事件对象中
+     * @param event 需要填充数据的事件对象（ringBuffer中预分配的）
+     * @param sequence 事件对象对应的生产者序列
+     * @param arg0 用户传入的第一个参数
+     * @param arg1 用户传入的第二个参数
+     * @param arg2 用户传入的第三个参数
+     * */
+    void translateTo(T event, long sequence, A arg0, B arg1, C arg2);
+
+}
@@ -0,0 +1,16 @@
+package com.my.v6.component;
+
+/**
+ * 带可变参数的事件转换器（仿Disruptor.EventTranslatorVararg）
+ * */
+public interface MyEventTranslatorVararg<T> {
+
+    /**
+     * 将数据填充到事件对象中
+     * @param event 需要填充数据的事件对象（ringBuffer中预分配的）
+     * @param sequence 事件对象对应的生产者序列
+     * @param args 用户传入的参数列表
+     * */
+    void translateTo(T event, long sequence, Object... args);
+
+}
@@ -0,0 +1,14 @@
+package com.my.v6.component;
+
+/**
+ * 事件处理器无法安全跳过的致命异常
+ * 普通异常会被MyBatchEventProcessor跳过（消费进度依然推进）；抛出该异常时，消费者不会推进消费序列（当前这一批事件对生产者、下游消费者都不可见），
+ * 而是直接停止运行并将异常抛给执行消费者的线程
+ * */
+public class MyFatalEventException extends RuntimeException {
+
+    public MyFatalEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+/**
+ * 堆外事件的享元对象（flyweight）
+ * 享元对象本身只持有一个堆外内存地址，事件的所有字段都按照固定的布局（字段偏移量）直接读写堆外内存
+ * 用户通过继承该类，基于getXX/putXX方法定义事件的字段访问方法
+ *
+ * 享元对象不持有任何引用类型的字段，预分配后常驻老年代也不会增加GC的扫描负担
+ * 注意：为了性能，读写时不会校验偏移量是否越界，offset + 字段长度不能超过MyOffHeapRingBuffer指定的recordSize
+ * */
+public abstract class MyFlyweight {
+
+    protected static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+    private static final long BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+    /**
+     * 当前享元对象绑定的堆外槽位的起始地址
+     * */
+    private long address;
+
+    /**
+     * 绑定到堆外槽位（由MyOffHeapRingBuffer在创建时调用，每个享元对象只绑定一个槽位）
+     * */
+    final void wrap(long address) {
+        this.address = address;
+    }
+
+    public final long address() {
+        return this.address;
+    }
+
+    protected final byte getByte(int offset) {
+        return UNSAFE.getByte(address + offset);
+    }
+
+    protected final void putByte(int offset, byte value) {
+        UNSAFE.putByte(address + offset, value);
+    }
+
+    protected final int getInt(int offset) {
+        return UNSAFE.getInt(address + offset);
+    }
+
+    protected final void putInt(int offset, int value) {
+        UNSAFE.putInt(address + offset, value);
+    }
+
+    protected final long getLong(int offset) {
+        return UNSAFE.getLong(address + offset);
+    }
+
+    protected final void putLong(int offset, long value) {
+        UNSAFE.putLong(address + offset, value);
+    }
+
+    protected final double getDouble(int offset) {
+        return UNSAFE.getDouble(address + offset);
+    }
+
+    protected final void putDouble(int offset, double value) {
+        UNSAFE.putDouble(address + offset, value);
+    }
+
+    /**
+     * 将堆外槽位中offset开始的length个字节拷贝到dst中
+     * */
+    protected final void getBytes(int offset, byte[] dst, int dstOffset, int length) {
+        UNSAFE.copyMemory(null, address + offset, dst, BYTE_ARRAY_BASE_OFFSET + dstOffset, length);
+    }
+
+    /**
+     * 将src中的length个字节拷贝到堆外槽位中offset开始的位置
+     * */
+    protected final void putBytes(int offset, byte[] src, int srcOffset, int length) {
+        UNSAFE.copyMemory(src, BYTE_ARRAY_BASE_OFFSET + srcOffset, null, address + offset, length);
+    }
+
+}
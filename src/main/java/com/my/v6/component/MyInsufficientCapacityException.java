@@ -0,0 +1,13 @@
+package com.my.v6.component;
+
+/**
+ * ringBuffer剩余容量不足异常（tryNext申请序列失败时抛出，生产者可以据此丢弃或转移消息，而不是阻塞等待）
+ * */
+public class MyInsufficientCapacityException extends Exception{
+
+    /**
+     * 单例异常（预先分配好，抛出时不需要创建对象、填充堆栈）
+     * */
+    public static final MyInsufficientCapacityException INSTANCE = new MyInsufficientCapacityException();
+
+}
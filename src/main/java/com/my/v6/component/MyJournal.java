@@ -0,0 +1,87 @@
+package com.my.v6.component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 事件日志的文件格式
+ * 日志目录下有多个段文件（segment），文件名为段内第一条记录的序列（20位，不足补0），按文件名排序即为日志顺序
+ * 段文件内是连续的记录，每条记录为：| 记录总长度(int) | 序列(long) | 时间戳(long，毫秒) | 序列化后的事件 |
+ * 段文件是预分配的（尾部填充0），读到长度为0的记录即代表段内的记录已经读完
+ * */
+public final class MyJournal {
+
+    public static final int LENGTH_OFFSET = 0;
+    public static final int SEQUENCE_OFFSET = LENGTH_OFFSET + 4;
+    public static final int TIMESTAMP_OFFSET = SEQUENCE_OFFSET + 8;
+    public static final int RECORD_HEADER_SIZE = TIMESTAMP_OFFSET + 8;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private MyJournal() {
+    }
+
+    public static File segmentFile(File directory, long firstSequence) {
+        return new File(directory, String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    public static long firstSequenceOf(File segment) {
+        final String name = segment.getName();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * 获得目录下的所有段文件（按日志顺序排序）
+     * */
+    public static File[] listSegments(File directory) {
+        final File[] segments = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (segments == null) {
+            return new File[0];
+        }
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    /**
+     * 获得日志中最后一条完整记录的序列（日志为空则返回-1）
+     * */
+    public static long lastSequence(File directory) throws IOException {
+        final File[] segments = listSegments(directory);
+        // 最后一个段文件可能是刚创建还没写入记录的，需要往前找
+        for (int i = segments.length - 1; i >= 0; i--) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(segments[i], "r")) {
+                final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+                long lastSequence = -1;
+                int position = 0;
+                int recordLength;
+                while ((recordLength = nextRecordLength(buffer, position)) > 0) {
+                    lastSequence = buffer.getLong(position + SEQUENCE_OFFSET);
+                    position += recordLength;
+                }
+                if (lastSequence >= 0) {
+                    return lastSequence;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获得position处记录的长度，没有完整的记录时返回0（预分配的尾部，或者崩溃时没有写完的记录）
+     * */
+    public static int nextRecordLength(MappedByteBuffer buffer, int position) {
+        if (position + RECORD_HEADER_SIZE > buffer.limit()) {
+            return 0;
+        }
+        final int recordLength = buffer.getInt(position + LENGTH_OFFSET);
+        if (recordLength < RECORD_HEADER_SIZE || recordLength > buffer.limit() - position) {
+            return 0;
+        }
+        return recordLength;
+    }
+
+}
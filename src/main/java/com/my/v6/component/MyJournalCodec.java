@@ -0,0 +1,24 @@
+package com.my.v6.component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 事件的序列化/反序列化接口（供MyJournalEventHandler写日志、MyJournalReplayer回放日志使用）
+ * */
+public interface MyJournalCodec<T> {
+
+    /**
+     * 将事件序列化到buffer中
+     * @param event 事件对象
+     * @param buffer 从其当前position开始写入，空间不足时抛出BufferOverflowException即可
+     * */
+    void encode(T event, ByteBuffer buffer);
+
+    /**
+     * 将buffer中[position, limit)的数据反序列化到事件对象中
+     * @param buffer 一条记录序列化后的数据
+     * @param event ringBuffer中预分配的事件对象
+     * */
+    void decode(ByteBuffer buffer, T event);
+
+}
@@ -0,0 +1,260 @@
+package com.my.v6.component;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 日志事件处理器（仿LMAX架构中的journaller）
+ * 将事件通过用户自定义的codec序列化后顺序写入日志文件，下游的业务消费者通过then(...)依赖它，保证业务处理之前事件已经落盘
+ *
+ * 组提交：同一批事件的写入会先合并在写缓冲区中，只有在endOfBatch时才会写入文件并force刷盘
+ * 消费者越落后，批次越大，一次刷盘的开销被分摊到越多的事件上
+ *
+ * 段文件写满后会滚动到一个新的段文件，新的段文件会预分配（提前写满0），避免每次刷盘都需要同步更新文件大小等元数据
+ * 不预分配时文件大小会随写入增长，每次刷盘都需要force(true)连同元数据一起刷盘；新建段文件之后也会刷盘所在目录，保证崩溃后段文件本身还在
+ *
+ * 日志中的序列与ringBuffer中的序列相互独立：每个写入的事件都紧接在日志中已有的最后一条记录之后（重启后ringBuffer的序列重新从0开始，日志序列依然连续）
+ * 回放的事件本身已经在日志中了，需要通过markReplayed显式的告知回放的区间（MyJournalReplayer会自动调用），这些事件不会被重复写入
+ * 回放区间之外的事件（包括回放之前、之后发布的新事件）都会正常写入
+ *
+ * 写入失败（io异常、序列化失败等）时，会先把已经缓冲的记录尽量刷盘，再抛出MyFatalEventException：
+ * 消费者停止运行，并且不推进消费序列，下游的业务消费者永远不会看到没有落盘的事件
+ * */
+public class MyJournalEventHandler<T> implements MyEventHandler<T>, Closeable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int PREALLOCATE_CHUNK_SIZE = 1024 * 1024;
+
+    private final File directory;
+    private final MyJournalCodec<T> codec;
+    private final long segmentSize;
+    private final boolean preallocate;
+
+    /**
+     * 单条记录的序列化缓冲区
+     * */
+    private final ByteBuffer recordBuffer;
+    /**
+     * 一批记录合并写入的缓冲区
+     * */
+    private final ByteBuffer writeBuffer;
+
+    private FileChannel channel;
+    /**
+     * 当前段文件中已经写入（包括还在写缓冲区中的）的字节数
+     * */
+    private long segmentPosition;
+    /**
+     * 最后一条写入（包括还在写缓冲区中的）的记录在日志中的序列（只由消费者线程访问）
+     * */
+    private long lastJournaledSequence;
+    /**
+     * 最后一条已经刷盘的记录在日志中的序列（供其它线程查询，每一批只更新一次）
+     * */
+    private volatile long lastForcedSequence;
+    /**
+     * 回放的事件在ringBuffer中的序列区间{lo, hi}（由回放线程添加，按序列从小到大排列；消费者线程越过之后移除）
+     * */
+    private final Queue<long[]> replayedRanges = new ConcurrentLinkedQueue<>();
+    /**
+     * 消费者线程当前所处的（或下一个）回放区间
+     * */
+    private long[] replayedRange;
+    /**
+     * 是否有还未刷盘的记录
+     * */
+    private boolean dirty;
+
+    public MyJournalEventHandler(File directory, MyJournalCodec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_SEGMENT_SIZE, DEFAULT_WRITE_BUFFER_SIZE, true);
+    }
+
+    /**
+     * @param directory 日志目录
+     * @param codec 事件的序列化方式
+     * @param segmentSize 单个段文件的大小
+     * @param writeBufferSize 写缓冲区的大小（同时也是单条记录的最大长度）
+     * @param preallocate 是否预分配段文件
+     * */
+    public MyJournalEventHandler(File directory, MyJournalCodec<T> codec, long segmentSize, int writeBufferSize, boolean preallocate) throws IOException {
+        if (writeBufferSize <= MyJournal.RECORD_HEADER_SIZE || segmentSize < writeBufferSize) {
+            throw new IllegalArgumentException("segmentSize must not be less than writeBufferSize");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("create journal directory failed：" + directory);
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.preallocate = preallocate;
+        this.recordBuffer = ByteBuffer.allocateDirect(writeBufferSize);
+        this.writeBuffer = ByteBuffer.allocateDirect(writeBufferSize);
+        this.lastJournaledSequence = MyJournal.lastSequence(directory);
+        this.lastForcedSequence = this.lastJournaledSequence;
+    }
+
+    /**
+     * 获得最后一条已经刷盘的事件在日志中的序列（可以在任意线程中调用）
+     * */
+    public long getLastJournaledSequence() {
+        return this.lastForcedSequence;
+    }
+
+    /**
+     * 标记ringBuffer中[lo, hi]区间内的事件是从日志中回放的事件（已经在日志中了，不需要再写入）
+     * 需要在发布这些事件之前调用，多次调用时区间需要按序列从小到大的顺序标记
+     * @param lo 第一个回放的事件在ringBuffer中的序列
+     * @param hi 最后一个回放的事件在ringBuffer中的序列
+     * */
+    public void markReplayed(long lo, long hi) {
+        this.replayedRanges.offer(new long[]{lo, hi});
+    }
+
+    @Override
+    public void consume(T event, long sequence, boolean endOfBatch) {
+        try {
+            if (!isReplayed(sequence)) {
+                // 紧接在日志中已有的最后一条记录之后
+                append(event, this.lastJournaledSequence + 1);
+            }
+            if (endOfBatch && this.dirty) {
+                // 一批事件只刷盘一次
+                flushAndForce();
+            }
+        } catch (IOException | RuntimeException e) {
+            // 先把这一批中已经缓冲的记录尽量落盘，再以致命异常停止消费者（失败的事件不能被跳过）
+            try {
+                flushAndForce();
+            } catch (IOException | RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new MyFatalEventException("写入日志失败，sequence=" + sequence, e);
+        }
+    }
+
+    /**
+     * ringBuffer中的sequence是否是回放的事件（消费者按序列从小到大的顺序调用）
+     * */
+    private boolean isReplayed(long sequence) {
+        // 当前区间已经越过了，取下一个回放区间（markReplayed在发布之前调用，因此这里一定能看到sequence所属的区间）
+        while (this.replayedRange == null || sequence > this.replayedRange[1]) {
+            this.replayedRange = this.replayedRanges.poll();
+            if (this.replayedRange == null) {
+                return false;
+            }
+        }
+        return sequence >= this.replayedRange[0];
+    }
+
+    private void flushAndForce() throws IOException {
+        if (this.channel == null || !this.dirty) {
+            return;
+        }
+        flushWriteBuffer();
+        forceChannel();
+        this.dirty = false;
+        this.lastForcedSequence = this.lastJournaledSequence;
+    }
+
+    private void append(T event, long journalSequence) throws IOException {
+        this.recordBuffer.clear();
+        this.recordBuffer.position(MyJournal.RECORD_HEADER_SIZE);
+        try {
+            this.codec.encode(event, this.recordBuffer);
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("事件序列化后超过了写缓冲区的大小：" + this.recordBuffer.capacity());
+        }
+        final int recordLength = this.recordBuffer.position();
+        this.recordBuffer.putInt(MyJournal.LENGTH_OFFSET, recordLength);
+        this.recordBuffer.putLong(MyJournal.SEQUENCE_OFFSET, journalSequence);
+        this.recordBuffer.putLong(MyJournal.TIMESTAMP_OFFSET, System.currentTimeMillis());
+        this.recordBuffer.flip();
+
+        if (this.channel == null) {
+            openSegment(journalSequence);
+        } else if (this.segmentPosition + recordLength > this.segmentSize) {
+            // 当前段文件已写满，滚动到新的段文件
+            flushWriteBuffer();
+            forceChannel();
+            this.channel.close();
+            openSegment(journalSequence);
+        }
+
+        if (this.writeBuffer.remaining() < recordLength) {
+            flushWriteBuffer();
+        }
+        this.writeBuffer.put(this.recordBuffer);
+        this.segmentPosition += recordLength;
+        this.lastJournaledSequence = journalSequence;
+        this.dirty = true;
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        final FileChannel newChannel = new RandomAccessFile(MyJournal.segmentFile(this.directory, firstSequence), "rw").getChannel();
+        if (this.preallocate) {
+            final ByteBuffer zeros = ByteBuffer.allocateDirect(PREALLOCATE_CHUNK_SIZE);
+            long position = 0;
+            while (position < this.segmentSize) {
+                zeros.clear();
+                zeros.limit((int) Math.min(PREALLOCATE_CHUNK_SIZE, this.segmentSize - position));
+                position += newChannel.write(zeros, position);
+            }
+            // 文件大小等元数据在这里一次性刷盘，之后的force(false)只需要刷数据
+            newChannel.force(true);
+        }
+        // 新建的段文件在目录中的记录也需要刷盘
+        forceDirectory();
+        newChannel.position(0);
+        this.channel = newChannel;
+        this.segmentPosition = 0;
+    }
+
+    /**
+     * 预分配的段文件大小不会再变化，只需要刷数据；否则文件大小也需要一起刷盘（force(false)不保证刷文件大小）
+     * */
+    private void forceChannel() throws IOException {
+        this.channel.force(!this.preallocate);
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel directoryChannel = FileChannel.open(this.directory.toPath(), StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // windows不支持打开目录，也不需要刷盘目录
+            if (!System.getProperty("os.name").toLowerCase().startsWith("windows")) {
+                throw e;
+            }
+        }
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        this.writeBuffer.flip();
+        while (this.writeBuffer.hasRemaining()) {
+            this.channel.write(this.writeBuffer);
+        }
+        this.writeBuffer.clear();
+    }
+
+    /**
+     * 将剩余的记录刷盘并关闭日志文件（需要在消费者停止之后调用）
+     * */
+    @Override
+    public void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        flushWriteBuffer();
+        forceChannel();
+        this.channel.close();
+        this.channel = null;
+        this.lastForcedSequence = this.lastJournaledSequence;
+    }
+
+}
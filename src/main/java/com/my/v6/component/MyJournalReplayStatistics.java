@@ -0,0 +1,75 @@
+package com.my.v6.component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次日志回放的统计结果
+ * */
+public class MyJournalReplayStatistics {
+
+    private final long replayedEvents;
+    private final long replayedBytes;
+    private final long lastReplayedSequence;
+    private final long lastRingSequence;
+    private final long elapsedNanos;
+
+    MyJournalReplayStatistics(long replayedEvents, long replayedBytes, long lastReplayedSequence, long lastRingSequence, long elapsedNanos) {
+        this.replayedEvents = replayedEvents;
+        this.replayedBytes = replayedBytes;
+        this.lastReplayedSequence = lastReplayedSequence;
+        this.lastRingSequence = lastRingSequence;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getReplayedEvents() {
+        return replayedEvents;
+    }
+
+    /**
+     * 回放的日志记录总字节数（包括记录头）
+     * */
+    public long getReplayedBytes() {
+        return replayedBytes;
+    }
+
+    /**
+     * 最后一条回放的记录在日志中的序列（没有回放任何记录时为-1）
+     * */
+    public long getLastReplayedSequence() {
+        return lastReplayedSequence;
+    }
+
+    /**
+     * 最后一条回放的记录在ringBuffer中的序列（没有回放任何记录时为-1）
+     * 回放的记录在ringBuffer中是连续的，第一条为lastRingSequence - replayedEvents + 1
+     * */
+    public long getLastRingSequence() {
+        return lastRingSequence;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getEventsPerSecond() {
+        return elapsedNanos == 0 ? 0 : replayedEvents * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : replayedBytes / (1024.0 * 1024.0) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MyJournalReplayStatistics{" +
+                "replayedEvents=" + replayedEvents +
+                ", replayedBytes=" + replayedBytes +
+                ", lastReplayedSequence=" + lastReplayedSequence +
+                ", lastRingSequence=" + lastRingSequence +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", eventsPerSecond=" + String.format("%.0f", getEventsPerSecond()) +
+                ", megabytesPerSecond=" + String.format("%.1f", getMegabytesPerSecond()) +
+                '}';
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.my.v6.component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 日志回放器：将MyJournalEventHandler写入的日志重新发布到ringBuffer中（例如重启后，在接收新的事件之前恢复业务状态）
+ * 段文件通过内存映射顺序读取，记录按照next(n)批量申请序列、批量发布，单个事件的回放开销被摊薄，回放速度主要取决于磁盘带宽
+ *
+ * 回放的事件在ringBuffer中的序列是由ringBuffer重新分配的，与日志中的序列无关（回放结果中会返回两者的对应关系）
+ * 如果目标ringBuffer的下游有MyJournalEventHandler，需要通过带journalEventHandler的构造方法创建回放器：
+ * 每一批事件发布之前都会通过markReplayed告知journaller这一批事件在ringBuffer中的区间，回放的事件不会被重复写入，其它的新事件接在日志末尾继续写入
+ * 此时可以从任意的fromSequence开始回放，也可以回放到一个已经发布过事件的ringBuffer中（回放期间不能有其它线程调用同一个journaller的markReplayed）
+ * */
+public class MyJournalReplayer<T> {
+
+    private final File directory;
+    private final MyJournalCodec<T> codec;
+    /**
+     * 目标ringBuffer下游的journaller（为null代表没有）
+     * */
+    private final MyJournalEventHandler<T> journalEventHandler;
+
+    public MyJournalReplayer(File directory, MyJournalCodec<T> codec) {
+        this(directory, codec, null);
+    }
+
+    /**
+     * @param journalEventHandler 目标ringBuffer下游的journaller，回放的事件不会被它重复写入
+     * */
+    public MyJournalReplayer(File directory, MyJournalCodec<T> codec, MyJournalEventHandler<T> journalEventHandler) {
+        this.directory = directory;
+        this.codec = codec;
+        this.journalEventHandler = journalEventHandler;
+    }
+
+    /**
+     * 以最快的速度回放日志
+     * @param ringBuffer 回放的目标ringBuffer
+     * @param fromSequence 从日志中的哪个序列开始回放（包含）
+     * @param batchSize 一次next(n)批量发布的事件个数（不能超过ringBuffer的容量）
+     * */
+    public MyJournalReplayStatistics replay(MyRingBuffer<T> ringBuffer, long fromSequence, int batchSize) throws IOException {
+        return replay(ringBuffer, fromSequence, batchSize, false);
+    }
+
+    /**
+     * 回放日志
+     * @param paced true：按照记录中的时间戳，以事件原本的时间间隔回放（用于复现线上的流量）；false：以最快的速度回放
+     * */
+    public MyJournalReplayStatistics replay(MyRingBuffer<T> ringBuffer, long fromSequence, int batchSize, boolean paced) throws IOException {
+        if (batchSize < 1 || batchSize > ringBuffer.getRingBufferSize()) {
+            throw new IllegalArgumentException("batchSize must be in [1, " + ringBuffer.getRingBufferSize() + "]");
+        }
+
+        final ReplayContext context = new ReplayContext(ringBuffer, batchSize, paced);
+        final File[] segments = MyJournal.listSegments(this.directory);
+        for (int i = 0; i < segments.length; i++) {
+            if (i + 1 < segments.length && MyJournal.firstSequenceOf(segments[i + 1]) <= fromSequence) {
+                // 下一个段文件的第一条记录都不超过fromSequence，当前段文件可以整个跳过
+                continue;
+            }
+            replaySegment(segments[i], fromSequence, context);
+        }
+        context.publishBatch();
+
+        return new MyJournalReplayStatistics(context.replayedEvents, context.replayedBytes, context.lastReplayedSequence,
+                context.lastRingSequence, System.nanoTime() - context.startNanos);
+    }
+
+    private void replaySegment(File segment, long fromSequence, ReplayContext context) throws IOException {
+        final MappedByteBuffer buffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(segment, "r")) {
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+        }
+
+        // decode时会修改position/limit，使用独立的视图
+        final ByteBuffer view = buffer.duplicate();
+        int position = 0;
+        int recordLength;
+        while ((recordLength = MyJournal.nextRecordLength(buffer, position)) > 0) {
+            final long sequence = buffer.getLong(position + MyJournal.SEQUENCE_OFFSET);
+            if (sequence >= fromSequence) {
+                context.add(view, position, recordLength, sequence, buffer.getLong(position + MyJournal.TIMESTAMP_OFFSET));
+            }
+            position += recordLength;
+        }
+        // 同一批次的记录都来自同一个段文件，切换段文件之前先发布当前段文件中剩余的记录
+        context.publishBatch();
+    }
+
+    /**
+     * 一次回放过程中的状态
+     * */
+    private class ReplayContext {
+
+        private final MyRingBuffer<T> ringBuffer;
+        private final boolean paced;
+
+        /**
+         * 当前批次的记录所在的段文件，以及每条记录在段文件中的位置
+         * */
+        private ByteBuffer batchBuffer;
+        private final int[] batchPositions;
+        private final int[] batchLengths;
+        private int batchCount;
+
+        private final long startNanos = System.nanoTime();
+        /**
+         * 第一条回放的记录的时间戳（按时间间隔回放时使用）
+         * */
+        private long firstTimestamp = -1;
+
+        private long replayedEvents;
+        private long replayedBytes;
+        private long lastReplayedSequence = -1;
+        private long lastRingSequence = -1;
+
+        ReplayContext(MyRingBuffer<T> ringBuffer, int batchSize, boolean paced) {
+            this.ringBuffer = ringBuffer;
+            this.paced = paced;
+            this.batchPositions = new int[batchSize];
+            this.batchLengths = new int[batchSize];
+        }
+
+        void add(ByteBuffer buffer, int position, int recordLength, long sequence, long timestamp) {
+            if (this.paced) {
+                awaitTimestamp(timestamp);
+            }
+
+            this.batchBuffer = buffer;
+            this.batchPositions[this.batchCount] = position;
+            this.batchLengths[this.batchCount] = recordLength;
+            this.batchCount++;
+            this.lastReplayedSequence = sequence;
+            if (this.batchCount == this.batchPositions.length) {
+                publishBatch();
+            }
+        }
+
+        /**
+         * 等待到记录原本的发生时刻（相对第一条回放的记录），等待之前先把已经攒下的事件发布出去
+         * */
+        private void awaitTimestamp(long timestamp) {
+            if (this.firstTimestamp < 0) {
+                this.firstTimestamp = timestamp;
+                return;
+            }
+            final long dueNanos = this.startNanos + TimeUnit.MILLISECONDS.toNanos(timestamp - this.firstTimestamp);
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                publishBatch();
+                while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            }
+        }
+
+        void publishBatch() {
+            if (this.batchCount == 0) {
+                return;
+            }
+            final int n = this.batchCount;
+            final long hi = this.ringBuffer.next(n);
+            final long lo = hi - (n - 1);
+            try {
+                if (journalEventHandler != null) {
+                    // 发布之前告知journaller这些事件已经在日志中了
+                    journalEventHandler.markReplayed(lo, hi);
+                }
+                for (int i = 0; i < n; i++) {
+                    final int position = this.batchPositions[i];
+                    this.batchBuffer.limit(position + this.batchLengths[i]);
+                    this.batchBuffer.position(position + MyJournal.RECORD_HEADER_SIZE);
+                    codec.decode(this.batchBuffer, this.ringBuffer.get(lo + i));
+                    this.replayedBytes += this.batchLengths[i];
+                }
+            } finally {
+                // 即使decode失败，申请到的序列也必须发布，否则消费者会一直阻塞
+                this.ringBuffer.publish(lo, hi);
+                this.replayedEvents += n;
+                this.lastRingSequence = hi;
+                this.batchCount = 0;
+            }
+        }
+    }
+
+}
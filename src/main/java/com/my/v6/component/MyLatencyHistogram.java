@@ -0,0 +1,77 @@
+package com.my.v6.component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图（仿HdrHistogram的对数-线性分桶，相对误差约为3%）
+ * 记录时不分配任何对象，只允许单个线程写入（每个消费者线程持有自己的直方图），其它线程可以随时读取快照
+ * */
+public class MyLatencyHistogram {
+
+    /**
+     * 每个2的幂区间内再细分的子桶个数为2^SUB_BUCKET_BITS
+     * */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+
+    /**
+     * 非负long的最高位最多为第62位，对应的最大下标为(62 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + (LINEAR_LIMIT - 1)
+     * */
+    static final int BUCKET_COUNT = (62 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + LINEAR_LIMIT;
+
+    /**
+     * 单线程写入，通过lazySet发布计数，其它线程读到的每个计数都是完整的
+     * */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录一个延迟值（纳秒）
+     * */
+    public void record(long value) {
+        int index = bucketIndex(Math.max(value, 0));
+        // 只有一个写线程，不需要cas
+        counts.lazySet(index, counts.get(index) + 1);
+    }
+
+    /**
+     * 获得当前直方图的快照（会复制一份计数，读取期间写线程可以继续记录）
+     * */
+    public MyLatencySnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new MyLatencySnapshot(copy);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            // 较小的值，每个值一个桶
+            return (int) value;
+        }
+        // 最高位所在的位置
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        // 保留最高的SUB_BUCKET_BITS + 1位，落在[SUB_BUCKET_COUNT, LINEAR_LIMIT)之间
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return mantissa << shift;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return bucketLowerBound(index) + (1L << shift) - 1;
+    }
+
+}
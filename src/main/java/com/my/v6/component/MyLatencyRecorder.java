@@ -0,0 +1,58 @@
+package com.my.v6.component;
+
+/**
+ * 单个消费者线程的延迟记录器
+ * endToEnd：从生产者发布到当前消费者处理完成的延迟
+ * stage：从上游阶段（上游消费者处理完成，没有上游消费者时则是生产者发布）到当前消费者处理完成的延迟
+ * 只有被采样的序列才会被记录，未被采样的序列只有一次位运算的开销
+ * */
+public class MyLatencyRecorder {
+
+    private final MyLatencyStage publishStage;
+    private final MyLatencyStage[] upstreamStages;
+    private final MyLatencyStage currentStage;
+
+    private final MyLatencyHistogram endToEndHistogram = new MyLatencyHistogram();
+    private final MyLatencyHistogram stageHistogram = new MyLatencyHistogram();
+
+    /**
+     * @param publishStage 生产者发布阶段
+     * @param upstreamStages 上游依赖的阶段（为空说明直接依赖于生产者）
+     * @param currentStage 当前消费者所属的阶段（workerPool中的多个worker共享同一个阶段）
+     * */
+    public MyLatencyRecorder(MyLatencyStage publishStage, MyLatencyStage[] upstreamStages, MyLatencyStage currentStage) {
+        this.publishStage = publishStage;
+        this.upstreamStages = upstreamStages.length == 0 ? new MyLatencyStage[]{publishStage} : upstreamStages;
+        this.currentStage = currentStage;
+    }
+
+    /**
+     * 消费者处理完一个事件之后调用
+     * */
+    public void recordConsumed(long sequence) {
+        if (!currentStage.isSampled(sequence)) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        endToEndHistogram.record(now - publishStage.timestampOf(sequence));
+
+        // 存在多个上游时（菱形依赖），以最后一个完成的上游为准
+        long upstreamTimestamp = Long.MIN_VALUE;
+        for (MyLatencyStage upstreamStage : upstreamStages) {
+            upstreamTimestamp = Math.max(upstreamTimestamp, upstreamStage.timestampOf(sequence));
+        }
+        stageHistogram.record(now - upstreamTimestamp);
+
+        currentStage.record(sequence, now);
+    }
+
+    public MyLatencySnapshot getEndToEndSnapshot() {
+        return endToEndHistogram.snapshot();
+    }
+
+    public MyLatencySnapshot getStageSnapshot() {
+        return stageHistogram.snapshot();
+    }
+
+}
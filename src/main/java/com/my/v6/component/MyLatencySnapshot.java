@@ -0,0 +1,90 @@
+package com.my.v6.component;
+
+/**
+ * 延迟直方图在某一时刻的快照
+ * */
+public class MyLatencySnapshot {
+
+    private final long[] counts;
+    private final long totalCount;
+
+    MyLatencySnapshot(long[] counts) {
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    /**
+     * 采样到的事件总数
+     * */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 获得指定百分位的延迟（纳秒），例如percentile=99.9
+     * */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= countAtPercentile) {
+                return MyLatencyHistogram.bucketUpperBound(i);
+            }
+        }
+        return getMax();
+    }
+
+    public long getMax() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return MyLatencyHistogram.bucketUpperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    public long getMin() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return MyLatencyHistogram.bucketLowerBound(i);
+            }
+        }
+        return 0;
+    }
+
+    public double getMean() {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                // 以桶的中间值近似
+                total += counts[i] * ((MyLatencyHistogram.bucketLowerBound(i) + MyLatencyHistogram.bucketUpperBound(i)) / 2.0);
+            }
+        }
+        return total / totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MyLatencySnapshot{" +
+                "count=" + totalCount +
+                ", min=" + getMin() +
+                ", mean=" + (long) getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", p99.9=" + getValueAtPercentile(99.9) +
+                ", max=" + getMax() +
+                '}';
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.my.v6.component;
+
+/**
+ * 延迟统计中的一个阶段（生产者发布，或者某一个消费者/workerPool处理完成）
+ * 以采样的方式记录每个序列到达该阶段的时间戳，供下游阶段计算阶段间的延迟
+ * 同一个序列只会被一个线程写入（生产者发布时，或者消费该序列的消费者线程），下游通过序列屏障保证能看到写入的时间戳
+ * */
+public class MyLatencyStage {
+
+    private final long[] timestamps;
+    private final int slotMask;
+    private final int sampleShift;
+    private final long sampleMask;
+
+    /**
+     * @param ringBufferSize ringBuffer的容量
+     * @param sampleInterval 采样间隔（2的幂），每sampleInterval个序列采样一个
+     * */
+    public MyLatencyStage(int ringBufferSize, int sampleInterval) {
+        if (Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("sampleInterval must be a power of 2");
+        }
+        this.sampleShift = Integer.numberOfTrailingZeros(sampleInterval);
+        this.sampleMask = sampleInterval - 1;
+        // ringBuffer中同时最多存在ringBufferSize个未被消费完的序列，因此只需要为其中被采样的序列保留时间戳
+        int slots = Math.max(1, ringBufferSize >> sampleShift);
+        this.timestamps = new long[slots];
+        this.slotMask = slots - 1;
+    }
+
+    public boolean isSampled(long sequence) {
+        return (sequence & sampleMask) == 0;
+    }
+
+    public int getSampleInterval() {
+        return (int) sampleMask + 1;
+    }
+
+    /**
+     * 记录一个序列到达当前阶段的时间（调用方保证sequence是被采样的）
+     * */
+    void record(long sequence, long timestamp) {
+        timestamps[(int) (sequence >>> sampleShift) & slotMask] = timestamp;
+    }
+
+    /**
+     * 批量记录一个序列区间到达当前阶段的时间（生产者批量发布时使用）
+     * */
+    void record(long lo, long hi, long timestamp) {
+        // 区间内第一个被采样的序列
+        for (long sequence = (lo + sampleMask) & ~sampleMask; sequence <= hi; sequence += sampleMask + 1) {
+            record(sequence, timestamp);
+        }
+    }
+
+    long timestampOf(long sequence) {
+        return timestamps[(int) (sequence >>> sampleShift) & slotMask];
+    }
+
+}
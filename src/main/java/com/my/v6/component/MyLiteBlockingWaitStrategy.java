@@ -0,0 +1,82 @@
+package com.my.v6.component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 轻量级的阻塞等待策略（仿Disruptor.LiteBlockingWaitStrategy）
+ * 和MyBlockingWaitStrategy的区别在于：只有当确实有消费者线程进入了阻塞态时，生产者发布时才需要加锁唤醒
+ * 消费者繁忙时（没有消费者阻塞），生产者的publish就不会有任何的加锁开销
+ */
+public class MyLiteBlockingWaitStrategy implements MyWaitStrategy, MyWaitStrategyMetrics {
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition processorNotifyCondition = lock.newCondition();
+
+    /**
+     * 消费者阻塞等待的次数（MySequence自带填充，避免和其它热点字段产生伪共享）
+     * */
+    private final MySequence blockCount = new MySequence(0);
+
+    /**
+     * 是否有消费者线程需要被唤醒
+     * */
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws InterruptedException, MyAlertException {
+        if (currentProducerSequence.get() < currentConsumeSequence) {
+            lock.lock();
+            try {
+                do {
+                    // 在阻塞前先标记需要被唤醒
+                    // 必须先设置标记再检查生产者序列，否则生产者可能恰好在检查和设置之间发布并跳过了唤醒，导致消费者永远阻塞
+                    signalNeeded.getAndSet(true);
+
+                    if (currentProducerSequence.get() >= currentConsumeSequence) {
+                        break;
+                    }
+
+                    mySequenceBarrier.checkAlert();
+                    blockCount.addAndGet(1);
+                    processorNotifyCondition.await();
+                } while (currentProducerSequence.get() < currentConsumeSequence);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long availableSequence;
+        // 受制于屏障中的dependentSequences，用来控制当前消费者消费进度不得超过其所依赖的链路上游的消费者进度
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            mySequenceBarrier.checkAlert();
+            LockSupport.parkNanos(1L);
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 只有存在阻塞的消费者时才加锁唤醒（getAndSet同时清除了标记）
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                processorNotifyCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long getBlockCount() {
+        return this.blockCount.get();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.my.v6.component;
+
+/**
+ * MyLongRingBuffer的事件处理器接口（直接接收long值，没有装箱）
+ * */
+public interface MyLongEventHandler {
+
+    /**
+     * 消费者消费事件
+     * @param value 事件值
+     * @param sequence 事件在队列里的序列
+     * @param endOfBatch 当前事件是否是这一批处理事件中的最后一个
+     * */
+    void consume(long value, long sequence, boolean endOfBatch);
+
+}
@@ -0,0 +1,37 @@
+package com.my.v6.component;
+
+/**
+ * MyLongPairRingBuffer的单线程消费者
+ */
+public class MyLongPairBatchEventProcessor extends MyAbstractBatchEventProcessor {
+
+    private final MyLongPairRingBuffer myRingBuffer;
+    private final MyLongPairEventHandler myEventConsumer;
+
+    public MyLongPairBatchEventProcessor(MyLongPairRingBuffer myRingBuffer,
+                                         MyLongPairEventHandler myEventConsumer,
+                                         MySequenceBarrier mySequenceBarrier) {
+        this(myRingBuffer, myEventConsumer, mySequenceBarrier, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBatchSize 单次批处理最多消费的事件数量
+     * */
+    public MyLongPairBatchEventProcessor(MyLongPairRingBuffer myRingBuffer,
+                                         MyLongPairEventHandler myEventConsumer,
+                                         MySequenceBarrier mySequenceBarrier,
+                                         int maxBatchSize) {
+        super(myEventConsumer, mySequenceBarrier, maxBatchSize, new MySequence(-1));
+        this.myRingBuffer = myRingBuffer;
+        this.myEventConsumer = myEventConsumer;
+    }
+
+    @Override
+    protected void consumeBatch(long endOfBatchIndex) {
+        long sequence;
+        while ((sequence = this.nextConsumerIndex) <= endOfBatchIndex) {
+            this.myEventConsumer.consume(this.myRingBuffer.getFirst(sequence), this.myRingBuffer.getSecond(sequence), sequence, sequence == endOfBatchIndex);
+            this.nextConsumerIndex = sequence + 1;
+        }
+    }
+}
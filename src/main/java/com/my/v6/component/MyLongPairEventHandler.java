@@ -0,0 +1,17 @@
+package com.my.v6.component;
+
+/**
+ * MyLongPairRingBuffer的事件处理器接口（直接接收两个long值，没有装箱）
+ * */
+public interface MyLongPairEventHandler {
+
+    /**
+     * 消费者消费事件
+     * @param first 事件的第一个值
+     * @param second 事件的第二个值
+     * @param sequence 事件在队列里的序列
+     * @param endOfBatch 当前事件是否是这一批处理事件中的最后一个
+     * */
+    void consume(long first, long second, long sequence, boolean endOfBatch);
+
+}
@@ -0,0 +1,78 @@
+package com.my.v6.component;
+
+/**
+ * 存放两个long值（例如订单id + 价格）的环形队列
+ * 同一个槽位的两个值在long数组中相邻存放，位于同一个缓存行中
+ */
+public class MyLongPairRingBuffer extends MyPrimitiveRingBuffer {
+
+    private final long[] values;
+
+    public MyLongPairRingBuffer(MyProducerSequencer myProducerSequencer) {
+        super(myProducerSequencer);
+        this.values = new long[2 * (this.ringBufferSize + 2 * BUFFER_PAD)];
+    }
+
+    public static MyLongPairRingBuffer create(ProducerType producerType, int bufferSize, MyWaitStrategy myWaitStrategy) {
+        return new MyLongPairRingBuffer(MyRingBuffer.createSequencer(producerType, bufferSize, myWaitStrategy));
+    }
+
+    public long getFirst(long sequence) {
+        return this.values[index(sequence) << 1];
+    }
+
+    public long getSecond(long sequence) {
+        return this.values[(index(sequence) << 1) + 1];
+    }
+
+    /**
+     * 写入通过next申请到的序列对应的槽位（之后需要调用publish发布）
+     * */
+    public void set(long sequence, long first, long second) {
+        final int index = index(sequence) << 1;
+        this.values[index] = first;
+        this.values[index + 1] = second;
+    }
+
+    public void publishEvent(long first, long second) {
+        final long sequence = next();
+        set(sequence, first, second);
+        publish(sequence);
+    }
+
+    /**
+     * 尝试发布一对值，ringBuffer已满时不阻塞，直接返回false
+     * */
+    public boolean tryPublishEvent(long first, long second) {
+        try {
+            final long sequence = tryNext();
+            set(sequence, first, second);
+            publish(sequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 批量发布firsts[offset, offset + length)和seconds[offset, offset + length)中一一对应的值
+     * */
+    public void publishEvents(long[] firsts, long[] seconds, int offset, int length) {
+        if (firsts.length != seconds.length) {
+            throw new IllegalArgumentException("批量发布的参数数组长度必须一致");
+        }
+        final int batchSize = checkBatchSize(firsts.length, offset, length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long hi = next(batchSize);
+        final long lo = hi - (batchSize - 1);
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                set(lo + i, firsts[offset + i], seconds[offset + i]);
+            }
+        } finally {
+            publish(lo, hi);
+        }
+    }
+}
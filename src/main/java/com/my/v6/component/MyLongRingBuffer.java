@@ -0,0 +1,69 @@
+package com.my.v6.component;
+
+/**
+ * 存放long值的环形队列（例如订单id、价格tick）
+ * 每个槽位就是long数组中的一个元素，没有事件对象
+ */
+public class MyLongRingBuffer extends MyPrimitiveRingBuffer {
+
+    private final long[] values;
+
+    public MyLongRingBuffer(MyProducerSequencer myProducerSequencer) {
+        super(myProducerSequencer);
+        this.values = new long[this.ringBufferSize + 2 * BUFFER_PAD];
+    }
+
+    public static MyLongRingBuffer create(ProducerType producerType, int bufferSize, MyWaitStrategy myWaitStrategy) {
+        return new MyLongRingBuffer(MyRingBuffer.createSequencer(producerType, bufferSize, myWaitStrategy));
+    }
+
+    public long get(long sequence) {
+        return this.values[index(sequence)];
+    }
+
+    /**
+     * 写入通过next申请到的序列对应的槽位（之后需要调用publish发布）
+     * */
+    public void set(long sequence, long value) {
+        this.values[index(sequence)] = value;
+    }
+
+    public void publishEvent(long value) {
+        final long sequence = next();
+        set(sequence, value);
+        publish(sequence);
+    }
+
+    /**
+     * 尝试发布一个值，ringBuffer已满时不阻塞，直接返回false
+     * */
+    public boolean tryPublishEvent(long value) {
+        try {
+            final long sequence = tryNext();
+            set(sequence, value);
+            publish(sequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 批量发布values[offset, offset + length)
+     * */
+    public void publishEvents(long[] values, int offset, int length) {
+        final int batchSize = checkBatchSize(values.length, offset, length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long hi = next(batchSize);
+        final long lo = hi - (batchSize - 1);
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                set(lo + i, values[offset + i]);
+            }
+        } finally {
+            publish(lo, hi);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于内存映射文件的环形队列（只支持单线程生产者）
+ * 事件数据存放在映射文件中，生产者序列以及消费者序列持久化在文件头部的header页中
+ * JVM崩溃重启后，重新open同一个文件：生产者从崩溃前最后发布的序列继续生产，消费者从崩溃前最后提交的消费序列继续消费
+ *
+ * 文件布局：
+ * | header(4096字节) | 槽位0 | 槽位1 | ... | 槽位bufferSize-1 |
+ * header内每个值独占一个缓存行：
+ * | magic/bufferSize/recordSize | 生产者序列 | 消费者0的序列/是否注册 | 消费者1的序列/是否注册 | ... |
+ *
+ * 映射内存在JVM崩溃后依然保留在操作系统的page cache中；如果需要在操作系统崩溃/断电后也不丢失，需要调用force刷盘
+ * */
+public class MyMappedRingBuffer<T extends MyFlyweight> extends MyOffHeapRingBuffer<T> {
+
+    private static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+    private static final long BUFFER_ADDRESS_OFFSET;
+
+    static {
+        try {
+            // 直接内存/映射内存的起始地址保存在Buffer.address字段中
+            BUFFER_ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final long MAGIC = 0x4D7952696E674255L;
+    private static final int HEADER_SIZE = 4096;
+    private static final int CACHE_LINE_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int BUFFER_SIZE_OFFSET = 8;
+    private static final int RECORD_SIZE_OFFSET = 12;
+    private static final int PRODUCER_SEQUENCE_OFFSET = CACHE_LINE_SIZE;
+    private static final int CONSUMER_SEQUENCE_OFFSET = CACHE_LINE_SIZE * 2;
+    /**
+     * 消费者槽位中，序列值之后的"是否注册过"标识
+     * */
+    private static final int CONSUMER_REGISTERED_OFFSET = 8;
+
+    /**
+     * header页中最多能持久化的消费者序列个数
+     * */
+    public static final int MAX_CONSUMERS = (HEADER_SIZE - CONSUMER_SEQUENCE_OFFSET) / CACHE_LINE_SIZE;
+
+    private final MappedByteBuffer mappedBuffer;
+    private final long headerAddress;
+    private final long recoveredProducerSequence;
+    private final MyMappedSequence[] consumerSequences = new MyMappedSequence[MAX_CONSUMERS];
+
+    private MyMappedRingBuffer(MySingleProducerSequencer sequencer, MyEventFactory<T> flyweightFactory, int recordSize,
+                               MappedByteBuffer mappedBuffer, long headerAddress) {
+        super(sequencer, flyweightFactory, recordSize, headerAddress + HEADER_SIZE);
+        this.mappedBuffer = mappedBuffer;
+        this.headerAddress = headerAddress;
+
+        // 生产者从崩溃前最后发布的序列继续生产
+        this.recoveredProducerSequence = UNSAFE.getLongVolatile(null, headerAddress + PRODUCER_SEQUENCE_OFFSET);
+        sequencer.claim(this.recoveredProducerSequence);
+    }
+
+    /**
+     * 打开（不存在则创建）一个基于内存映射文件的ringBuffer
+     * @param file 映射文件
+     * @param flyweightFactory 享元对象工厂
+     * @param recordSize 每个事件的固定长度（字节）
+     * @param bufferSize ringBuffer的容量（重新打开已存在的文件时必须与创建时一致）
+     * @param myWaitStrategy 指定的消费者阻塞策略
+     * */
+    public static <T extends MyFlyweight> MyMappedRingBuffer<T> open(
+            File file, MyEventFactory<T> flyweightFactory, int recordSize, int bufferSize, MyWaitStrategy myWaitStrategy) throws IOException {
+        final int alignedRecordSize = alignRecordSize(recordSize);
+        final long fileSize = HEADER_SIZE + (long) alignedRecordSize * bufferSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("映射文件不能超过2GB：" + fileSize);
+        }
+
+        final MappedByteBuffer mappedBuffer;
+        final boolean created;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            created = randomAccessFile.length() == 0;
+            if (created) {
+                randomAccessFile.setLength(fileSize);
+            } else if (randomAccessFile.length() != fileSize) {
+                throw new IllegalStateException("映射文件的大小与bufferSize/recordSize不匹配：" + file);
+            }
+            // 映射建立之后，关闭文件不会影响映射内存的使用
+            mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        }
+
+        final long headerAddress = UNSAFE.getLong(mappedBuffer, BUFFER_ADDRESS_OFFSET);
+        if (created) {
+            initHeader(headerAddress, bufferSize, alignedRecordSize);
+        } else if (UNSAFE.getLong(headerAddress + MAGIC_OFFSET) != MAGIC
+                || UNSAFE.getInt(headerAddress + BUFFER_SIZE_OFFSET) != bufferSize
+                || UNSAFE.getInt(headerAddress + RECORD_SIZE_OFFSET) != alignedRecordSize) {
+            throw new IllegalStateException("映射文件的header与bufferSize/recordSize不匹配：" + file);
+        }
+
+        return new MyMappedRingBuffer<>(
+                new MySingleProducerSequencer(bufferSize, myWaitStrategy), flyweightFactory, recordSize, mappedBuffer, headerAddress);
+    }
+
+    private static void initHeader(long headerAddress, int bufferSize, int recordSize) {
+        UNSAFE.putLong(headerAddress + PRODUCER_SEQUENCE_OFFSET, -1);
+        for (int i = 0; i < MAX_CONSUMERS; i++) {
+            UNSAFE.putLong(headerAddress + CONSUMER_SEQUENCE_OFFSET + (long) i * CACHE_LINE_SIZE, -1);
+        }
+        UNSAFE.putInt(headerAddress + BUFFER_SIZE_OFFSET, bufferSize);
+        UNSAFE.putInt(headerAddress + RECORD_SIZE_OFFSET, recordSize);
+        // magic最后写入，header写到一半时崩溃的文件不会被当作合法的文件
+        UNSAFE.putLongVolatile(null, headerAddress + MAGIC_OFFSET, MAGIC);
+    }
+
+    /**
+     * 获得打开文件时恢复的生产者序列（新创建的文件为-1）
+     * */
+    public long getRecoveredProducerSequence() {
+        return this.recoveredProducerSequence;
+    }
+
+    /**
+     * 获得持久化在header页中的消费者序列，用于创建消费者（new MyBatchEventProcessor(..., consumerSequence)）
+     * 同一个consumerId在重启前后需要对应同一个消费者，重启后消费者会从持久化的序列之后继续消费
+     * 从未注册过的consumerId和普通消费者一样，从注册时的生产者序列开始消费
+     * 持久化的消费者需要在disruptor启动之前注册
+     * @param consumerId 消费者编号（0 ~ MAX_CONSUMERS-1）
+     * */
+    public synchronized MySequence consumerSequence(int consumerId) {
+        if (consumerId < 0 || consumerId >= MAX_CONSUMERS) {
+            throw new IllegalArgumentException("consumerId must be in [0, " + MAX_CONSUMERS + ")");
+        }
+        if (this.consumerSequences[consumerId] == null) {
+            final long address = headerAddress + CONSUMER_SEQUENCE_OFFSET + (long) consumerId * CACHE_LINE_SIZE;
+            final boolean registered = UNSAFE.getIntVolatile(null, address + CONSUMER_REGISTERED_OFFSET) != 0;
+            // 正常情况下消费者最多落后生产者bufferSize个序列，并且不会超过生产者序列
+            final long persistedValue = UNSAFE.getLongVolatile(null, address);
+            final long restoreValue = Math.min(
+                    Math.max(persistedValue, this.recoveredProducerSequence - getRingBufferSize()), this.recoveredProducerSequence);
+            this.consumerSequences[consumerId] = new MyMappedSequence(this.mappedBuffer, address, registered, restoreValue);
+            UNSAFE.putIntVolatile(null, address + CONSUMER_REGISTERED_OFFSET, 1);
+        }
+        return this.consumerSequences[consumerId];
+    }
+
+    @Override
+    public void publish(long index) {
+        // 事件数据写入映射内存后、发布之前先持久化生产者序列
+        // 如果先发布，消费者可能在header更新之前就消费并持久化了index，此时崩溃会恢复出 消费者序列 > 生产者序列，生产者的下一个事件会被跳过
+        UNSAFE.putOrderedLong(null, headerAddress + PRODUCER_SEQUENCE_OFFSET, index);
+        super.publish(index);
+    }
+
+    @Override
+    public void publish(long lo, long hi) {
+        UNSAFE.putOrderedLong(null, headerAddress + PRODUCER_SEQUENCE_OFFSET, hi);
+        super.publish(lo, hi);
+    }
+
+    @Override
+    public void addGatingConsumerSequenceList(MySequence consumerSequence) {
+        super.addGatingConsumerSequenceList(consumerSequence);
+        restore(consumerSequence);
+    }
+
+    @Override
+    public void addGatingConsumerSequenceList(MySequence... consumerSequences) {
+        super.addGatingConsumerSequenceList(consumerSequences);
+        restore(consumerSequences);
+    }
+
+    @Override
+    public void addConsumerSequence(MySequence consumerSequence) {
+        super.addConsumerSequence(consumerSequence);
+        restore(consumerSequence);
+    }
+
+    @Override
+    public void addConsumerSequence(MySequence... gatingSequences) {
+        super.addConsumerSequence(gatingSequences);
+        restore(gatingSequences);
+    }
+
+    private static void restore(MySequence... sequences) {
+        for (MySequence sequence : sequences) {
+            if (sequence instanceof MyMappedSequence) {
+                ((MyMappedSequence) sequence).restore();
+            }
+        }
+    }
+
+    /**
+     * 将映射内存中的修改刷到磁盘（保证操作系统崩溃/断电后也不丢失）
+     * */
+    public void force() {
+        this.mappedBuffer.force();
+    }
+
+    /**
+     * 映射内存会在MappedByteBuffer被GC回收时解除映射，这里只负责刷盘
+     * */
+    @Override
+    public void release() {
+        force();
+    }
+
+}
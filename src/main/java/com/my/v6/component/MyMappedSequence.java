@@ -0,0 +1,67 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * 存放在内存映射文件中的序列（由MyMappedRingBuffer创建）
+ * 序列值直接读写映射内存，JVM崩溃后依然保留在操作系统的page cache中（最终会被刷到文件里），重启后可以从中恢复
+ * */
+public class MyMappedSequence extends MySequence {
+
+    private static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+
+    /**
+     * 持有映射内存的引用，避免映射内存在序列仍被使用时被回收
+     * */
+    private final MappedByteBuffer mappedBuffer;
+    private final long address;
+
+    /**
+     * 注册到生产者的gating序列时，MySequenceGroups会将序列值覆盖为当前生产者序列
+     * 因此需要在注册之后，再将其恢复为重启前持久化的值（只恢复一次）
+     * */
+    private boolean restorePending;
+    private final long restoreValue;
+
+    MyMappedSequence(MappedByteBuffer mappedBuffer, long address, boolean restorePending, long restoreValue) {
+        this.mappedBuffer = mappedBuffer;
+        this.address = address;
+        this.restorePending = restorePending;
+        this.restoreValue = restoreValue;
+    }
+
+    void restore() {
+        if (this.restorePending) {
+            this.restorePending = false;
+            set(this.restoreValue);
+        }
+    }
+
+    @Override
+    public long get() {
+        return UNSAFE.getLongVolatile(null, address);
+    }
+
+    @Override
+    public void set(long value) {
+        UNSAFE.putLongVolatile(null, address, value);
+    }
+
+    @Override
+    public void lazySet(long value) {
+        UNSAFE.putOrderedLong(null, address, value);
+    }
+
+    @Override
+    public boolean compareAndSet(long expect, long update) {
+        return UNSAFE.compareAndSwapLong(null, address, expect, update);
+    }
+
+    @Override
+    public long addAndGet(long increment) {
+        return UNSAFE.getAndAddLong(null, address, increment) + increment;
+    }
+
+}
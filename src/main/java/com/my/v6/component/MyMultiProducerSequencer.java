@@ -4,7 +4,7 @@ import sun.misc.Unsafe;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -14,10 +14,25 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
 
     private final int ringBufferSize;
     private final MySequence currentProducerSequence = new MySequence();
-    private final List<MySequence> gatingConsumerSequenceList = new ArrayList<>();
+
+    /**
+     * 消费者序列集合
+     * 生产者线程会并发的遍历，因此和单线程生产者一样，通过cas整体替换数组的方式（写时复制）来新增、删除消费者序列
+     */
+    private volatile MySequence[] gatingConsumerSequences = new MySequence[0];
+
+    private static final AtomicReferenceFieldUpdater<MyMultiProducerSequencer, MySequence[]> SEQUENCE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(MyMultiProducerSequencer.class, MySequence[].class, "gatingConsumerSequences");
+
     private final MyWaitStrategy myWaitStrategy;
 
     private final MySequence gatingSequenceCache = new MySequence();
+
+    /**
+     * 生产者park等待的次数/总时间（只在ringBuffer已满的慢路径上更新，MySequence自带填充，不会和热点字段产生伪共享）
+     */
+    private final MySequence producerParkCount = new MySequence(0);
+    private final MySequence producerParkNanos = new MySequence(0);
     private final int[] availableBuffer;
     private final int indexMask;
     private final int indexShift;
@@ -75,10 +90,13 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
             // 消费者位点cachedValue并不是实时获取的（因为在没有超过环绕点一圈时，生产者是可以放心生产的）
             // 每次发布都实时获取反而会触发对消费者sequence强一致的读，迫使消费者线程所在的CPU刷新缓存（而这是不需要的）
             if(wrapPoint > cachedGatingSequence){
-                long gatingSequence = SequenceUtil.getMinimumSequence(currentMaxProducerSequenceNum, this.gatingConsumerSequenceList);
+                long gatingSequence = SequenceUtil.getMinimumSequence(currentMaxProducerSequenceNum, this.gatingConsumerSequences);
                 if(wrapPoint > gatingSequence){
                     // 如果确实超过了一圈，则生产者无法获取队列空间
+                    long parkStart = System.nanoTime();
                     LockSupport.parkNanos(1);
+                    this.producerParkCount.addAndGet(1);
+                    this.producerParkNanos.addAndGet(System.nanoTime() - parkStart);
                     // park短暂阻塞后continue跳出重新进入循环
                     continue;
 
@@ -100,12 +118,76 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
         } while (true);
     }
 
+    @Override
+    public long tryNext() throws MyInsufficientCapacityException {
+        return tryNext(1);
+    }
+
+    @Override
+    public long tryNext(int n) throws MyInsufficientCapacityException {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        long currentMaxProducerSequenceNum;
+        long nextProducerSequence;
+
+        do {
+            currentMaxProducerSequenceNum = currentProducerSequence.get();
+            nextProducerSequence = currentMaxProducerSequenceNum + n;
+
+            if (!hasAvailableCapacity(n, currentMaxProducerSequenceNum)) {
+                // 剩余容量不足，立即失败（抛出预先分配好的单例异常，没有额外的开销）
+                throw MyInsufficientCapacityException.INSTANCE;
+            }
+            // 和next一样，只有cas成功的线程才视为申请成功
+        } while (!currentProducerSequence.compareAndSet(currentMaxProducerSequenceNum, nextProducerSequence));
+
+        return nextProducerSequence;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(int requiredCapacity) {
+        return hasAvailableCapacity(requiredCapacity, currentProducerSequence.get());
+    }
+
+    private boolean hasAvailableCapacity(int requiredCapacity, long currentMaxProducerSequenceNum) {
+        long wrapPoint = (currentMaxProducerSequenceNum + requiredCapacity) - this.ringBufferSize;
+        long cachedGatingSequence = this.gatingSequenceCache.get();
+
+        if (wrapPoint > cachedGatingSequence) {
+            // 缓存的消费者序列不满足要求，实时的读一次最新的消费者序列
+            long minSequence = SequenceUtil.getMinimumSequence(currentMaxProducerSequenceNum, this.gatingConsumerSequences);
+            this.gatingSequenceCache.set(minSequence);
+
+            return wrapPoint <= minSequence;
+        }
+
+        return true;
+    }
+
+    @Override
+    public long remainingCapacity() {
+        long produced = this.currentProducerSequence.get();
+        long consumed = SequenceUtil.getMinimumSequence(produced, this.gatingConsumerSequences);
+        return this.ringBufferSize - (produced - consumed);
+    }
+
     @Override
     public void publish(long publishIndex) {
         setAvailable(publishIndex);
         this.myWaitStrategy.signalWhenBlocking();
     }
 
+    @Override
+    public void publish(long lo, long hi) {
+        // 区间内的每一个序列都需要标记为可用，但只需要在最后统一唤醒一次消费者
+        for (long sequence = lo; sequence <= hi; sequence++) {
+            setAvailable(sequence);
+        }
+        this.myWaitStrategy.signalWhenBlocking();
+    }
+
     @Override
     public long getHighestPublishedSequence(long lowBound, long availableSequence) {
         // lowBound是消费者传入的，保证是已经明确发布了的最小生产者序列号
@@ -114,14 +196,30 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
         // 那么，找到的这个未发布下标的前一个序列号，就是当前最大的已经发布了的序列号（可以被消费者正常消费）
         // 2 在lowBound到availableSequence中间不存在未发布的下标，那么就和单生产者的情况一样
         // 包括availableSequence以及之前的序列号都已经发布过了，availableSequence就是当前可用的最大的的序列号（已发布的）
+        //
+        // 优化：逐个的getIntVolatile会形成一长串串行的volatile读，消费者落后较多时（一次扫描成百上千个槽位）开销明显
+        // 消费者调用该方法之前已经通过等待策略volatile的读过了生产者序列（获取语义，之后的读不会被重排序到它之前）
+        // 因此扫描时只需要普通的读，在扫描结束、返回给消费者之前插入一次读屏障（loadFence）
+        // 保证消费者后续对event事件的读取不会被重排序到对availableBuffer的读取之前即可
+        // 普通读可能读到旧值，但那只会让返回的可用序列偏小（下次再消费），不会影响正确性
+        int index = calculateIndex(lowBound);
+        int flag = calculateAvailabilityFlag(lowBound);
         for(long sequence = lowBound; sequence <= availableSequence; sequence++){
-            if (!isAvailable(sequence)) {
+            if (UNSAFE.getInt(availableBuffer, (index * SCALE) + BASE) != flag) {
                 // 属于上述的情况1，lowBound和availableSequence中间存在未发布的序列号
+                UNSAFE.loadFence();
                 return sequence - 1;
             }
+
+            // 增量的计算下一个序列对应的下标和标识，绕过一圈时标识加1（避免每个序列都做一次求模和移位运算）
+            if (++index == ringBufferSize) {
+                index = 0;
+                flag++;
+            }
         }
 
         // 属于上述的情况2，lowBound和availableSequence中间不存在未发布的序列号
+        UNSAFE.loadFence();
         return availableSequence;
     }
 
@@ -179,17 +277,17 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
 
     @Override
     public void addGatingConsumerSequence(MySequence newGatingConsumerSequence) {
-        this.gatingConsumerSequenceList.add(newGatingConsumerSequence);
+        MySequenceGroups.addSequences(this,SEQUENCE_UPDATER,this.currentProducerSequence,newGatingConsumerSequence);
     }
 
     @Override
     public void addGatingConsumerSequenceList(MySequence... newGatingConsumerSequences) {
-        this.gatingConsumerSequenceList.addAll(Arrays.asList(newGatingConsumerSequences));
+        MySequenceGroups.addSequences(this,SEQUENCE_UPDATER,this.currentProducerSequence,newGatingConsumerSequences);
     }
 
     @Override
     public void removeConsumerSequence(MySequence sequenceNeedRemove) {
-        this.gatingConsumerSequenceList.remove(sequenceNeedRemove);
+        MySequenceGroups.removeSequence(this,SEQUENCE_UPDATER,sequenceNeedRemove);
     }
 
     @Override
@@ -202,4 +300,19 @@ public class MyMultiProducerSequencer implements MyProducerSequencer {
         return this.ringBufferSize;
     }
 
+    @Override
+    public MyWaitStrategy getWaitStrategy() {
+        return this.myWaitStrategy;
+    }
+
+    @Override
+    public long getProducerParkCount() {
+        return this.producerParkCount.get();
+    }
+
+    @Override
+    public long getProducerParkNanos() {
+        return this.producerParkNanos.get();
+    }
+
 }
@@ -0,0 +1,107 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 堆外内存的环形队列
+ * 事件数据按照固定的记录长度（recordSize）存放在一块连续的堆外内存中，不会被GC扫描
+ * 每个槽位预先绑定一个享元对象（MyFlyweight），生产者/消费者通过get(sequence)拿到的享元对象直接读写对应槽位的堆外内存
+ *
+ * 没有使用"整个ringBuffer只有一个、每次get时重新绑定地址"的享元对象：生产者和多个消费者会在不同线程中同时调用get，共享的享元对象会被互相改写；
+ * 每个线程各自一个（ThreadLocal）则会让get多一次ThreadLocal查找，并且同一个线程先后get的两个事件会指向同一个槽位
+ * 每个槽位一个享元对象的代价是bufferSize个只包含一个long字段的小对象，它们不引用任何对象，常驻老年代也不会增加GC的扫描负担
+ *
+ * 序列的申请、发布，以及序列屏障、消费者的处理逻辑都与MyRingBuffer完全一致（同一套sequencer、barrier和processor）
+ * */
+public class MyOffHeapRingBuffer<T extends MyFlyweight> extends MyRingBuffer<T> {
+
+    private static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+    private static final int CACHE_LINE_SIZE = 64;
+
+    /**
+     * allocateMemory返回的原始地址（用于释放内存，为0代表内存不是由当前ringBuffer申请的）
+     * */
+    private final long rawAddress;
+    /**
+     * 第一个槽位的地址
+     * */
+    private final long baseAddress;
+    private final int recordSize;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * @param myProducerSequencer 生产者序列器
+     * @param flyweightFactory 享元对象工厂（每个槽位创建一个）
+     * @param recordSize 每个事件的固定长度（字节），会向上对齐到8字节
+     * */
+    public MyOffHeapRingBuffer(MyProducerSequencer myProducerSequencer, MyEventFactory<T> flyweightFactory, int recordSize) {
+        super(myProducerSequencer, flyweightFactory);
+
+        // 记录长度对齐到8字节，保证long/double字段在对齐的地址上读写
+        this.recordSize = alignRecordSize(recordSize);
+        final long capacity = (long) this.recordSize * getRingBufferSize();
+        // 多申请一个缓存行，将起始地址对齐到缓存行，避免第一个槽位和其它数据共享缓存行
+        this.rawAddress = UNSAFE.allocateMemory(capacity + CACHE_LINE_SIZE);
+        this.baseAddress = (this.rawAddress + CACHE_LINE_SIZE - 1) & ~((long) CACHE_LINE_SIZE - 1);
+        UNSAFE.setMemory(this.baseAddress, capacity, (byte) 0);
+
+        bindFlyweights();
+    }
+
+    /**
+     * 基于外部提供的内存区域（例如内存映射文件）创建，内存的生命周期由子类负责
+     * @param baseAddress 第一个槽位的地址，可用的长度至少为alignRecordSize(recordSize) * bufferSize
+     * */
+    protected MyOffHeapRingBuffer(MyProducerSequencer myProducerSequencer, MyEventFactory<T> flyweightFactory, int recordSize, long baseAddress) {
+        super(myProducerSequencer, flyweightFactory);
+        this.recordSize = alignRecordSize(recordSize);
+        this.rawAddress = 0;
+        this.baseAddress = baseAddress;
+
+        bindFlyweights();
+    }
+
+    public static int alignRecordSize(int recordSize) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("recordSize must be greater than 0");
+        }
+        return (recordSize + 7) & ~7;
+    }
+
+    private void bindFlyweights() {
+        // 每个享元对象绑定到对应的槽位
+        for (int i = 0; i < getRingBufferSize(); i++) {
+            get(i).wrap(this.baseAddress + (long) i * this.recordSize);
+        }
+    }
+
+    public int getRecordSize() {
+        return this.recordSize;
+    }
+
+    /**
+     * 释放堆外内存
+     * 必须在所有生产者、消费者都停止之后调用，释放之后再通过享元对象读写会访问非法内存
+     * */
+    public void release() {
+        if (this.rawAddress != 0 && released.compareAndSet(false, true)) {
+            UNSAFE.freeMemory(this.rawAddress);
+        }
+    }
+
+    /**
+     * 创建堆外内存的RingBuffer
+     * @param producerType 生产者类型（单线程生产者 or 多线程生产者）
+     * @param flyweightFactory 享元对象工厂
+     * @param recordSize 每个事件的固定长度（字节）
+     * @param bufferSize ringBuffer的容量
+     * @param myWaitStrategy 指定的消费者阻塞策略
+     * */
+    public static <T extends MyFlyweight> MyOffHeapRingBuffer<T> create(
+            ProducerType producerType, MyEventFactory<T> flyweightFactory, int recordSize, int bufferSize, MyWaitStrategy myWaitStrategy) {
+        return new MyOffHeapRingBuffer<>(createSequencer(producerType, bufferSize, myWaitStrategy), flyweightFactory, recordSize);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.my.v6.component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 协作式挂起的等待策略
+ * 消费者没有事件可消费时通过LockSupport.park挂起，生产者发布时unpark唤醒；等待上游消费者时按指数退避parkNanos
+ * 全程不加锁、不自旋：运行在虚拟线程上时，park会让出载体线程（carrier），大量低流量的ringBuffer可以共享少量的载体线程
+ * 和MyLiteBlockingWaitStrategy一样，只有确实有消费者挂起时，生产者发布才需要去唤醒
+ */
+public class MyParkingWaitStrategy implements MyWaitStrategy, MyWaitStrategyMetrics {
+
+    private static final long DEFAULT_MAX_PARK_NANOS = 1_000_000L;
+
+    /**
+     * 当前挂起在该等待策略上的消费者线程
+     * */
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否有消费者线程需要被唤醒
+     * */
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+    private final MySequence blockCount = new MySequence(0);
+
+    /**
+     * 等待上游消费者时，退避的最长挂起时间
+     * */
+    private final long maxParkNanos;
+
+    public MyParkingWaitStrategy() {
+        this(DEFAULT_MAX_PARK_NANOS);
+    }
+
+    public MyParkingWaitStrategy(long maxParkNanos) {
+        if (maxParkNanos < 1) {
+            throw new IllegalArgumentException("maxParkNanos must be greater than 0");
+        }
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws MyAlertException {
+        if (currentProducerSequence.get() < currentConsumeSequence) {
+            final Thread currentThread = Thread.currentThread();
+            waiters.add(currentThread);
+            try {
+                while (currentProducerSequence.get() < currentConsumeSequence) {
+                    // 必须先设置标记再检查生产者序列/alert标记，否则生产者可能恰好在检查之后、设置之前发布并跳过了唤醒
+                    signalNeeded.set(true);
+
+                    if (currentProducerSequence.get() >= currentConsumeSequence) {
+                        break;
+                    }
+
+                    mySequenceBarrier.checkAlert();
+                    blockCount.addAndGet(1);
+                    // 被unpark唤醒，或者unpark先于park发生时park立即返回（也可能是虚假唤醒，循环重新检查）
+                    LockSupport.park(this);
+                }
+            } finally {
+                waiters.remove(currentThread);
+            }
+        }
+
+        long availableSequence;
+        long parkNanos = 1L;
+        // 受制于屏障中的dependentSequences，用来控制当前消费者消费进度不得超过其所依赖的链路上游的消费者进度
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            mySequenceBarrier.checkAlert();
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, this.maxParkNanos);
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 只有存在挂起的消费者时才需要唤醒（getAndSet同时清除了标记）
+        if (signalNeeded.getAndSet(false)) {
+            for (Thread waiter : waiters) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    @Override
+    public long getBlockCount() {
+        return this.blockCount.get();
+    }
+
+}
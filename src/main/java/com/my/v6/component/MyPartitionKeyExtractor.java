@@ -0,0 +1,15 @@
+package com.my.v6.component;
+
+/**
+ * 分区workerPool中事件key的提取器
+ * key相同的事件总是会被同一个worker按照序列的顺序消费
+ */
+public interface MyPartitionKeyExtractor<T> {
+
+    /**
+     * 获得事件key的hash值（例如订单id的hashCode）
+     * @param event 事件对象
+     * */
+    int keyHash(T event);
+
+}
@@ -0,0 +1,63 @@
+package com.my.v6.component;
+
+/**
+ * 分区workerPool中的一个worker（由MyBatchEventProcessor驱动）
+ * 每个worker都会遍历所有的事件，但只消费key被分配到自己分区的事件，其余的事件直接跳过
+ * worker之间没有共享的争抢序列：同一个key的事件总是由同一个worker按序消费，workHandler内部的状态不需要加锁
+ */
+public class MyPartitionedEventHandler<T> implements MyEventHandler<T> {
+
+    private final MyPartitionKeyExtractor<T> myPartitionKeyExtractor;
+    private final MyWorkHandler<T> myWorkHandler;
+    private final int partition;
+    private final int partitionCount;
+    /**
+     * 延迟统计（为null代表未开启）
+     * 由worker自己记录，而不是交给MyBatchEventProcessor：被跳过的事件不属于当前分区，不能计入当前worker的延迟
+     * */
+    private MyLatencyRecorder myLatencyRecorder;
+
+    public MyPartitionedEventHandler(MyPartitionKeyExtractor<T> myPartitionKeyExtractor, MyWorkHandler<T> myWorkHandler,
+                                     int partition, int partitionCount) {
+        if (partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException("partition must be in [0, " + partitionCount + ")");
+        }
+        this.myPartitionKeyExtractor = myPartitionKeyExtractor;
+        this.myWorkHandler = myWorkHandler;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * 计算key的hash值对应的分区（和HashMap一样先将高位扰动到低位，再取模）
+     * */
+    public static int partitionOf(int keyHash, int partitionCount) {
+        final int h = keyHash ^ (keyHash >>> 16);
+        return (h & Integer.MAX_VALUE) % partitionCount;
+    }
+
+    @Override
+    public void consume(T event, long sequence, boolean endOfBatch) {
+        if (partitionOf(this.myPartitionKeyExtractor.keyHash(event), this.partitionCount) == this.partition) {
+            this.myWorkHandler.consume(event);
+            if (this.myLatencyRecorder != null) {
+                this.myLatencyRecorder.recordConsumed(sequence);
+            }
+        }
+    }
+
+    /**
+     * 开启延迟统计（需要在消费者启动之前设置）
+     * */
+    public void setLatencyRecorder(MyLatencyRecorder myLatencyRecorder) {
+        this.myLatencyRecorder = myLatencyRecorder;
+    }
+
+    public MyWorkHandler<T> getWorkHandler() {
+        return this.myWorkHandler;
+    }
+
+    public int getPartition() {
+        return this.partition;
+    }
+}
@@ -0,0 +1,102 @@
+package com.my.v6.component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分阶段退避的等待策略（仿Disruptor.PhasedBackoffWaitStrategy）
+ * 先自旋spinTimeout时间，再yield到yieldTimeout时间，超过之后交给兜底的等待策略（例如阻塞等待）
+ * 适合流量有明显波峰波谷的场景：繁忙时延迟接近自旋策略，空闲时不会长时间的占用cpu
+ */
+public class MyPhasedBackoffWaitStrategy implements MyWaitStrategy, MyWaitStrategyMetrics {
+
+    /**
+     * 每自旋SPIN_TRIES次才检查一次时间（System.nanoTime本身也有开销）
+     * */
+    private static final int SPIN_TRIES = 10000;
+
+    private final long spinTimeoutNanos;
+    private final long yieldTimeoutNanos;
+    private final MyWaitStrategy fallbackStrategy;
+
+    public MyPhasedBackoffWaitStrategy(long spinTimeout, long yieldTimeout, TimeUnit units, MyWaitStrategy fallbackStrategy) {
+        this.spinTimeoutNanos = units.toNanos(spinTimeout);
+        this.yieldTimeoutNanos = spinTimeoutNanos + units.toNanos(yieldTimeout);
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    /**
+     * 兜底策略为阻塞等待
+     * */
+    public static MyPhasedBackoffWaitStrategy withLock(long spinTimeout, long yieldTimeout, TimeUnit units) {
+        return new MyPhasedBackoffWaitStrategy(spinTimeout, yieldTimeout, units, new MyBlockingWaitStrategy());
+    }
+
+    /**
+     * 兜底策略为轻量级的阻塞等待
+     * */
+    public static MyPhasedBackoffWaitStrategy withLiteLock(long spinTimeout, long yieldTimeout, TimeUnit units) {
+        return new MyPhasedBackoffWaitStrategy(spinTimeout, yieldTimeout, units, new MyLiteBlockingWaitStrategy());
+    }
+
+    /**
+     * 兜底策略为park睡眠
+     * */
+    public static MyPhasedBackoffWaitStrategy withSleep(long spinTimeout, long yieldTimeout, TimeUnit units) {
+        return new MyPhasedBackoffWaitStrategy(spinTimeout, yieldTimeout, units, new MySleepingWaitStrategy(0));
+    }
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws InterruptedException, MyAlertException, MyTimeoutException {
+        long availableSequence;
+        long startTime = 0;
+        int counter = SPIN_TRIES;
+
+        do {
+            if ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) >= currentConsumeSequence) {
+                return availableSequence;
+            }
+
+            if (0 == --counter) {
+                if (0 == startTime) {
+                    // 第一次自旋完一轮，记录开始等待的时间
+                    startTime = System.nanoTime();
+                } else {
+                    long timeDelta = System.nanoTime() - startTime;
+                    if (timeDelta > yieldTimeoutNanos) {
+                        // 超过了yield阶段的时间，交给兜底策略等待
+                        return this.fallbackStrategy.waitFor(
+                                currentConsumeSequence, currentProducerSequence, dependentSequences, mySequenceBarrier);
+                    } else if (timeDelta > spinTimeoutNanos) {
+                        // 超过了自旋阶段的时间，让出cpu
+                        Thread.yield();
+                    }
+                }
+                counter = SPIN_TRIES;
+                mySequenceBarrier.checkAlert();
+            }
+        } while (true);
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 消费者可能阻塞在兜底策略上，由兜底策略负责唤醒
+        this.fallbackStrategy.signalWhenBlocking();
+    }
+
+    /**
+     * 兜底策略（MyShmRingBuffer需要根据它判断能否跨进程使用）
+     * */
+    MyWaitStrategy getFallbackStrategy() {
+        return this.fallbackStrategy;
+    }
+
+    @Override
+    public long getBlockCount() {
+        // 只有兜底策略会让消费者阻塞
+        return (this.fallbackStrategy instanceof MyWaitStrategyMetrics)
+                ? ((MyWaitStrategyMetrics) this.fallbackStrategy).getBlockCount() : 0;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.my.v6.component;
+
+/**
+ * 基本类型环形队列的公共部分（生产者序列的申请/发布、消费者序列的注册都委托给MyProducerSequencer）
+ * 事件值直接内联存放在long数组中，不需要MyEventFactory预填充的事件对象，消费时也不需要多一次指针跳转
+ */
+public abstract class MyPrimitiveRingBuffer {
+
+    /**
+     * 数组两端的填充（一个缓存行可以容纳的long个数的两倍，兼容相邻缓存行预取），避免数组头尾的元素与其它对象发生伪共享
+     * */
+    protected static final int BUFFER_PAD = 16;
+
+    private final MyProducerSequencer myProducerSequencer;
+    protected final int ringBufferSize;
+    protected final int mask;
+
+    protected MyPrimitiveRingBuffer(MyProducerSequencer myProducerSequencer) {
+        int bufferSize = myProducerSequencer.getRingBufferSize();
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.myProducerSequencer = myProducerSequencer;
+        this.ringBufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+    }
+
+    public int getRingBufferSize() {
+        return this.ringBufferSize;
+    }
+
+    public MySequence getCurrentProducerSequence(){
+        return this.myProducerSequencer.getCurrentProducerSequence();
+    }
+
+    public long next(){
+        return this.myProducerSequencer.next();
+    }
+
+    public long next(int n){
+        return this.myProducerSequencer.next(n);
+    }
+
+    public long tryNext() throws MyInsufficientCapacityException {
+        return this.myProducerSequencer.tryNext();
+    }
+
+    public long tryNext(int n) throws MyInsufficientCapacityException {
+        return this.myProducerSequencer.tryNext(n);
+    }
+
+    public boolean hasAvailableCapacity(int requiredCapacity){
+        return this.myProducerSequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    public long remainingCapacity(){
+        return this.myProducerSequencer.remainingCapacity();
+    }
+
+    public void publish(long index){
+        this.myProducerSequencer.publish(index);
+    }
+
+    public void publish(long lo, long hi){
+        this.myProducerSequencer.publish(lo, hi);
+    }
+
+    public MySequenceBarrier newBarrier() {
+        return this.myProducerSequencer.newBarrier();
+    }
+
+    public MySequenceBarrier newBarrier(MySequence... dependenceSequences) {
+        return this.myProducerSequencer.newBarrier(dependenceSequences);
+    }
+
+    public void addGatingConsumerSequenceList(MySequence... consumerSequences){
+        this.myProducerSequencer.addGatingConsumerSequenceList(consumerSequences);
+    }
+
+    public void removeConsumerSequence(MySequence consumerSequence){
+        this.myProducerSequencer.removeConsumerSequence(consumerSequence);
+    }
+
+    /**
+     * 批量发布之前校验参数（需要在next(n)之前校验，否则申请到的序列无法发布，ringBuffer会被卡住）
+     * @return 批量发布的事件个数
+     * */
+    protected final int checkBatchSize(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || length > arrayLength - offset) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length + ", arrayLength=" + arrayLength);
+        }
+        if (length > this.ringBufferSize) {
+            throw new IllegalArgumentException("批量发布的事件个数不能超过ringBuffer的容量：" + this.ringBufferSize);
+        }
+        return length;
+    }
+
+    protected final int index(long sequence) {
+        return BUFFER_PAD + (int) (sequence & this.mask);
+    }
+}
@@ -18,12 +18,47 @@ public interface MyProducerSequencer {
      * */
     long next(int n);
 
+    /**
+     * 尝试获得一个可用的生产者序列值，ringBuffer已满时不会阻塞，而是立即失败
+     * @return 可用的生产者序列值
+     * @throws MyInsufficientCapacityException ringBuffer剩余容量不足
+     * */
+    long tryNext() throws MyInsufficientCapacityException;
+
+    /**
+     * 尝试获得一个可用的生产者序列值区间，ringBuffer已满时不会阻塞，而是立即失败
+     * @param n 区间长度
+     * @return 可用的生产者序列区间的最大值
+     * @throws MyInsufficientCapacityException ringBuffer剩余容量不足
+     * */
+    long tryNext(int n) throws MyInsufficientCapacityException;
+
+    /**
+     * ringBuffer中是否还有足够的剩余容量
+     * @param requiredCapacity 需要的容量
+     * @return true代表剩余容量足够
+     * */
+    boolean hasAvailableCapacity(int requiredCapacity);
+
+    /**
+     * 获得ringBuffer当前的剩余容量
+     * @return 剩余容量
+     * */
+    long remainingCapacity();
+
     /**
      * 发布一个生产者序列
      * @param publishIndex 需要发布的生产者序列号
      * */
     void publish(long publishIndex);
 
+    /**
+     * 批量发布一个生产者序列区间（通常和next(n)配合使用），整个区间只需要唤醒一次消费者
+     * @param lo 需要发布的生产者序列区间的最小值（包含）
+     * @param hi 需要发布的生产者序列区间的最大值（包含）
+     * */
+    void publish(long lo, long hi);
+
     /**
      * 创建一个无上游消费者依赖的序列屏障
      * @return 新的序列屏障
@@ -67,6 +102,12 @@ public interface MyProducerSequencer {
      * */
     int getRingBufferSize();
 
+    /**
+     * 获得消费者的阻塞策略
+     * @return 阻塞策略
+     * */
+    MyWaitStrategy getWaitStrategy();
+
     /**
      * 获得最大的已发布的，可用的消费者序列值
      * @param nextSequence 已经明确发布了的最小生产者序列号
@@ -75,4 +116,16 @@ public interface MyProducerSequencer {
      * */
     long getHighestPublishedSequence(long nextSequence, long availableSequence);
 
+    /**
+     * 获得生产者因为ringBuffer已满而park等待的次数
+     * @return park次数
+     * */
+    long getProducerParkCount();
+
+    /**
+     * 获得生产者因为ringBuffer已满而park等待的总时间
+     * @return park总时间（纳秒）
+     * */
+    long getProducerParkNanos();
+
 }
@@ -15,6 +15,11 @@ public class MyRingBuffer<T> {
     private final int ringBufferSize;
     private final int mask;
 
+    /**
+     * 生产者发布阶段的延迟统计（为null代表未开启延迟统计）
+     * */
+    private MyLatencyStage publishLatencyStage;
+
     /**
      * 解决伪共享 右半部分填充
      * */
@@ -45,6 +50,17 @@ public class MyRingBuffer<T> {
         return elementList[index];
     }
 
+    public int getRingBufferSize() {
+        return this.ringBufferSize;
+    }
+
+    /**
+     * 开启生产者发布阶段的延迟统计（需要在生产者开始发布之前设置）
+     * */
+    public void setPublishLatencyStage(MyLatencyStage publishLatencyStage) {
+        this.publishLatencyStage = publishLatencyStage;
+    }
+
     public MySequence getCurrentProducerSequence(){
         return this.myProducerSequencer.getCurrentProducerSequence();
     }
@@ -57,10 +73,267 @@ public class MyRingBuffer<T> {
         return this.myProducerSequencer.next(n);
     }
 
-    public void publish(Long index){
+    /**
+     * 尝试申请一个生产者序列，ringBuffer已满时立即抛出MyInsufficientCapacityException，不会阻塞
+     * */
+    public long tryNext() throws MyInsufficientCapacityException {
+        return this.myProducerSequencer.tryNext();
+    }
+
+    public long tryNext(int n) throws MyInsufficientCapacityException {
+        return this.myProducerSequencer.tryNext(n);
+    }
+
+    public boolean hasAvailableCapacity(int requiredCapacity){
+        return this.myProducerSequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    public long remainingCapacity(){
+        return this.myProducerSequencer.remainingCapacity();
+    }
+
+    public MyWaitStrategy getWaitStrategy(){
+        return this.myProducerSequencer.getWaitStrategy();
+    }
+
+    public long getProducerParkCount(){
+        return this.myProducerSequencer.getProducerParkCount();
+    }
+
+    public long getProducerParkNanos(){
+        return this.myProducerSequencer.getProducerParkNanos();
+    }
+
+    public void publish(long index){
+        if (this.publishLatencyStage != null && this.publishLatencyStage.isSampled(index)) {
+            // 先记录发布时间，再发布序列，保证消费者看到序列时也能看到发布时间
+            this.publishLatencyStage.record(index, System.nanoTime());
+        }
         this.myProducerSequencer.publish(index);
     }
 
+    /**
+     * 批量发布通过next(n)申请到的生产者序列区间
+     * @param lo 区间最小值（包含）
+     * @param hi 区间最大值（包含），即next(n)的返回值
+     * */
+    public void publish(long lo, long hi){
+        if (this.publishLatencyStage != null) {
+            this.publishLatencyStage.record(lo, hi, System.nanoTime());
+        }
+        this.myProducerSequencer.publish(lo, hi);
+    }
+
+    /**
+     * 通过事件转换器发布一个事件
+     * */
+    public void publishEvent(MyEventTranslator<T> translator){
+        final long sequence = next();
+        translateAndPublish(translator, sequence);
+    }
+
+    public <A> void publishEvent(MyEventTranslatorOneArg<T, A> translator, A arg0){
+        final long sequence = next();
+        translateAndPublish(translator, sequence, arg0);
+    }
+
+    public <A, B> void publishEvent(MyEventTranslatorTwoArg<T, A, B> translator, A arg0, B arg1){
+        final long sequence = next();
+        translateAndPublish(translator, sequence, arg0, arg1);
+    }
+
+    public <A, B, C> void publishEvent(MyEventTranslatorThreeArg<T, A, B, C> translator, A arg0, B arg1, C arg2){
+        final long sequence = next();
+        translateAndPublish(translator, sequence, arg0, arg1, arg2);
+    }
+
+    /**
+     * 通过可变参数的事件转换器发布一个事件
+     * 与publishEvent(MyEventTranslatorOneArg, A)同名时，两个参数的lambda无法区分是哪一个转换器，因此使用不同的方法名
+     * */
+    public void publishEventVararg(MyEventTranslatorVararg<T> translator, Object... args){
+        final long sequence = next();
+        translateAndPublishVararg(translator, sequence, args);
+    }
+
+    /**
+     * 通过事件转换器批量发布事件，每个事件转换器对应一个事件
+     * 整批事件通过next(n)一次性申请序列区间，并一次性发布
+     * */
+    public void publishEvents(MyEventTranslator<T>[] translators){
+        final int batchSize = checkBatchSize(translators.length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long finalSequence = next(batchSize);
+        translateAndPublishBatch(translators, batchSize, finalSequence);
+    }
+
+    /**
+     * 通过事件转换器批量发布事件，arg0数组中的每个参数对应一个事件
+     * */
+    public <A> void publishEvents(MyEventTranslatorOneArg<T, A> translator, A[] arg0){
+        final int batchSize = checkBatchSize(arg0.length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long finalSequence = next(batchSize);
+        translateAndPublishBatch(translator, arg0, batchSize, finalSequence);
+    }
+
+    public <A, B> void publishEvents(MyEventTranslatorTwoArg<T, A, B> translator, A[] arg0, B[] arg1){
+        final int batchSize = checkBatchSize(arg0.length, arg1.length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long finalSequence = next(batchSize);
+        translateAndPublishBatch(translator, arg0, arg1, batchSize, finalSequence);
+    }
+
+    public <A, B, C> void publishEvents(MyEventTranslatorThreeArg<T, A, B, C> translator, A[] arg0, B[] arg1, C[] arg2){
+        final int batchSize = checkBatchSize(arg0.length, arg1.length, arg2.length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long finalSequence = next(batchSize);
+        translateAndPublishBatch(translator, arg0, arg1, arg2, batchSize, finalSequence);
+    }
+
+    public void publishEventsVararg(MyEventTranslatorVararg<T> translator, Object[]... args){
+        final int batchSize = checkBatchSize(args.length);
+        if (batchSize == 0) {
+            return;
+        }
+        final long finalSequence = next(batchSize);
+        translateAndPublishBatch(translator, args, batchSize, finalSequence);
+    }
+
+    /**
+     * 尝试通过事件转换器发布一个事件，ringBuffer已满时不阻塞，直接返回false
+     * */
+    public boolean tryPublishEvent(MyEventTranslator<T> translator){
+        try {
+            final long sequence = tryNext();
+            translateAndPublish(translator, sequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A> boolean tryPublishEvent(MyEventTranslatorOneArg<T, A> translator, A arg0){
+        try {
+            final long sequence = tryNext();
+            translateAndPublish(translator, sequence, arg0);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A, B> boolean tryPublishEvent(MyEventTranslatorTwoArg<T, A, B> translator, A arg0, B arg1){
+        try {
+            final long sequence = tryNext();
+            translateAndPublish(translator, sequence, arg0, arg1);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A, B, C> boolean tryPublishEvent(MyEventTranslatorThreeArg<T, A, B, C> translator, A arg0, B arg1, C arg2){
+        try {
+            final long sequence = tryNext();
+            translateAndPublish(translator, sequence, arg0, arg1, arg2);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public boolean tryPublishEventVararg(MyEventTranslatorVararg<T> translator, Object... args){
+        try {
+            final long sequence = tryNext();
+            translateAndPublishVararg(translator, sequence, args);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 尝试通过事件转换器批量发布事件，剩余容量不足以容纳整批事件时不阻塞，直接返回false（一个都不发布）
+     * */
+    public boolean tryPublishEvents(MyEventTranslator<T>[] translators){
+        final int batchSize = checkBatchSize(translators.length);
+        if (batchSize == 0) {
+            return true;
+        }
+        try {
+            final long finalSequence = tryNext(batchSize);
+            translateAndPublishBatch(translators, batchSize, finalSequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A> boolean tryPublishEvents(MyEventTranslatorOneArg<T, A> translator, A[] arg0){
+        final int batchSize = checkBatchSize(arg0.length);
+        if (batchSize == 0) {
+            return true;
+        }
+        try {
+            final long finalSequence = tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, batchSize, finalSequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A, B> boolean tryPublishEvents(MyEventTranslatorTwoArg<T, A, B> translator, A[] arg0, B[] arg1){
+        final int batchSize = checkBatchSize(arg0.length, arg1.length);
+        if (batchSize == 0) {
+            return true;
+        }
+        try {
+            final long finalSequence = tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, arg1, batchSize, finalSequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public <A, B, C> boolean tryPublishEvents(MyEventTranslatorThreeArg<T, A, B, C> translator, A[] arg0, B[] arg1, C[] arg2){
+        final int batchSize = checkBatchSize(arg0.length, arg1.length, arg2.length);
+        if (batchSize == 0) {
+            return true;
+        }
+        try {
+            final long finalSequence = tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, arg1, arg2, batchSize, finalSequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
+    public boolean tryPublishEventsVararg(MyEventTranslatorVararg<T> translator, Object[]... args){
+        final int batchSize = checkBatchSize(args.length);
+        if (batchSize == 0) {
+            return true;
+        }
+        try {
+            final long finalSequence = tryNext(batchSize);
+            translateAndPublishBatch(translator, args, batchSize, finalSequence);
+            return true;
+        } catch (MyInsufficientCapacityException e) {
+            return false;
+        }
+    }
+
     public void addGatingConsumerSequenceList(MySequence consumerSequence){
         this.myProducerSequencer.addGatingConsumerSequenceList(consumerSequence);
     }
@@ -77,6 +350,14 @@ public class MyRingBuffer<T> {
         return this.myProducerSequencer.newBarrier(dependenceSequences);
     }
 
+    /**
+     * 创建一个拉模式的消费者（新的消费序列从-1开始，需要调用方注册为gating序列）
+     * @param dependenceSequences 依赖的上游消费者序列，为空时只依赖生产者序列
+     * */
+    public MyEventPoller<T> newPoller(MySequence... dependenceSequences) {
+        return new MyEventPoller<>(this, this.myProducerSequencer, new MySequence(-1), dependenceSequences);
+    }
+
     public void addConsumerSequence(MySequence consumerSequence){
         this.myProducerSequencer.addGatingConsumerSequence(consumerSequence);
     }
@@ -89,6 +370,135 @@ public class MyRingBuffer<T> {
         this.myProducerSequencer.removeConsumerSequence(consumerSequence);
     }
 
+    private void translateAndPublish(MyEventTranslator<T> translator, long sequence){
+        try {
+            translator.translateTo(get(sequence), sequence);
+        } finally {
+            // 即使转换器抛出了异常，申请到的序列也必须发布，否则消费者会一直阻塞在这个序列上
+            publish(sequence);
+        }
+    }
+
+    private <A> void translateAndPublish(MyEventTranslatorOneArg<T, A> translator, long sequence, A arg0){
+        try {
+            translator.translateTo(get(sequence), sequence, arg0);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    private <A, B> void translateAndPublish(MyEventTranslatorTwoArg<T, A, B> translator, long sequence, A arg0, B arg1){
+        try {
+            translator.translateTo(get(sequence), sequence, arg0, arg1);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    private <A, B, C> void translateAndPublish(MyEventTranslatorThreeArg<T, A, B, C> translator, long sequence, A arg0, B arg1, C arg2){
+        try {
+            translator.translateTo(get(sequence), sequence, arg0, arg1, arg2);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    private void translateAndPublishVararg(MyEventTranslatorVararg<T> translator, long sequence, Object... args){
+        try {
+            translator.translateTo(get(sequence), sequence, args);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    private void translateAndPublishBatch(MyEventTranslator<T>[] translators, int batchSize, long finalSequence){
+        // next(n)返回的是区间的最大值，反推出区间的最小值
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try {
+            long sequence = initialSequence;
+            for (int i = 0; i < batchSize; i++) {
+                translators[i].translateTo(get(sequence), sequence++);
+            }
+        } finally {
+            publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A> void translateAndPublishBatch(MyEventTranslatorOneArg<T, A> translator, A[] arg0, int batchSize, long finalSequence){
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try {
+            long sequence = initialSequence;
+            for (int i = 0; i < batchSize; i++) {
+                translator.translateTo(get(sequence), sequence++, arg0[i]);
+            }
+        } finally {
+            publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A, B> void translateAndPublishBatch(MyEventTranslatorTwoArg<T, A, B> translator, A[] arg0, B[] arg1,
+                                                 int batchSize, long finalSequence){
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try {
+            long sequence = initialSequence;
+            for (int i = 0; i < batchSize; i++) {
+                translator.translateTo(get(sequence), sequence++, arg0[i], arg1[i]);
+            }
+        } finally {
+            publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A, B, C> void translateAndPublishBatch(MyEventTranslatorThreeArg<T, A, B, C> translator, A[] arg0, B[] arg1, C[] arg2,
+                                                    int batchSize, long finalSequence){
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try {
+            long sequence = initialSequence;
+            for (int i = 0; i < batchSize; i++) {
+                translator.translateTo(get(sequence), sequence++, arg0[i], arg1[i], arg2[i]);
+            }
+        } finally {
+            publish(initialSequence, finalSequence);
+        }
+    }
+
+    private void translateAndPublishBatch(MyEventTranslatorVararg<T> translator, Object[][] args, int batchSize, long finalSequence){
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try {
+            long sequence = initialSequence;
+            for (int i = 0; i < batchSize; i++) {
+                translator.translateTo(get(sequence), sequence++, args[i]);
+            }
+        } finally {
+            publish(initialSequence, finalSequence);
+        }
+    }
+
+    /**
+     * 校验批量发布的参数，返回批量发布的事件个数
+     * 一次批量申请的序列个数不能超过ringBuffer的容量，否则生产者会永远申请不到足够的空间
+     * */
+    private int checkBatchSize(int batchSize){
+        if (batchSize > this.ringBufferSize) {
+            throw new IllegalArgumentException("批量发布的事件个数不能超过ringBuffer的容量：" + this.ringBufferSize);
+        }
+        return batchSize;
+    }
+
+    private int checkBatchSize(int arg0Length, int arg1Length){
+        if (arg0Length != arg1Length) {
+            throw new IllegalArgumentException("批量发布的参数数组长度必须一致");
+        }
+        return checkBatchSize(arg0Length);
+    }
+
+    private int checkBatchSize(int arg0Length, int arg1Length, int arg2Length){
+        if (arg0Length != arg2Length) {
+            throw new IllegalArgumentException("批量发布的参数数组长度必须一致");
+        }
+        return checkBatchSize(arg0Length, arg1Length);
+    }
+
     public static <E> MyRingBuffer<E> createSingleProducer(MyEventFactory<E> factory, int bufferSize, MyWaitStrategy waitStrategy) {
         MySingleProducerSequencer sequencer = new MySingleProducerSequencer(bufferSize, waitStrategy);
         return new MyRingBuffer<>(sequencer,factory);
@@ -108,15 +518,18 @@ public class MyRingBuffer<T> {
      * */
     public static <T> MyRingBuffer<T> create(
             ProducerType producerType, MyEventFactory<T> eventFactory, int bufferSize, MyWaitStrategy myWaitStrategy) {
+        return new MyRingBuffer<>(createSequencer(producerType, bufferSize, myWaitStrategy), eventFactory);
+    }
+
+    /**
+     * 根据生产者类型创建对应的生产者序列器
+     * */
+    static MyProducerSequencer createSequencer(ProducerType producerType, int bufferSize, MyWaitStrategy myWaitStrategy) {
         switch (producerType) {
-            case SINGLE: {
-                MySingleProducerSequencer singleProducerSequencerV5 = new MySingleProducerSequencer(bufferSize, myWaitStrategy);
-                return new MyRingBuffer<>(singleProducerSequencerV5, eventFactory);
-            }
-            case MULTI: {
-                MyMultiProducerSequencer multiProducerSequencer = new MyMultiProducerSequencer(bufferSize, myWaitStrategy);
-                return new MyRingBuffer<>(multiProducerSequencer, eventFactory);
-            }
+            case SINGLE:
+                return new MySingleProducerSequencer(bufferSize, myWaitStrategy);
+            case MULTI:
+                return new MyMultiProducerSequencer(bufferSize, myWaitStrategy);
             default:
                 throw new RuntimeException("un support producerType:" + producerType.toString());
         }
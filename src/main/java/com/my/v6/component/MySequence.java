@@ -65,4 +65,11 @@ public class MySequence {
         return UNSAFE.compareAndSwapLong(this, VALUE_OFFSET, expect, update);
     }
 
+    /**
+     * 原子的增加increment并返回增加后的值（也可以把MySequence当作一个填充过的、不会产生伪共享的计数器使用）
+     * */
+    public long addAndGet(long increment){
+        return UNSAFE.getAndAddLong(this, VALUE_OFFSET, increment) + increment;
+    }
+
 }
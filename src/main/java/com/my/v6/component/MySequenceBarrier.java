@@ -29,11 +29,11 @@ public class MySequenceBarrier {
      * @param currentConsumeSequence
      * @return
      */
-    public long getAvailableConsumeSequence(long currentConsumeSequence) throws InterruptedException, MyAlertException {
+    public long getAvailableConsumeSequence(long currentConsumeSequence) throws InterruptedException, MyAlertException, MyTimeoutException {
         // 每次都检查下是否有被唤醒，被唤醒则会抛出MyAlertException代表当前消费者要终止运行了
         checkAlert();
 
-        long availableSequence =  this.myWaitStrategy.waitFor(currentConsumeSequence, currentProducerSequence, dependentSequencesList);
+        long availableSequence =  this.myWaitStrategy.waitFor(currentConsumeSequence, currentProducerSequence, dependentSequencesList, this);
         // 正常来说，availableSequence >= currentConsumeSequence
         if (availableSequence < currentConsumeSequence) {
             return availableSequence;
@@ -5,8 +5,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * 更改Sequence数组工具类（仿Disruptor.SequenceGroups）
- * 注意：实现中cas的插入/删除机制在MyDisruptor中是不必要的，因为MyDisruptor不支持在运行时动态的注册新消费者（disruptor支持，但是有一些额外的复杂度）
- *     只是为了和Disruptor的实现保持一致，可以更好的说明实现原理才这样做的，本质上只需要支持sequence数组扩容/缩容即可
+ * 通过cas整体替换sequence数组（写时复制），支持在生产者运行时并发的注册/移除消费者序列（参见MyDisruptor.addEventHandlerAtRuntime）
  * */
 public class MySequenceGroups {
 
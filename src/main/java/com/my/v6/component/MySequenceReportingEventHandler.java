@@ -0,0 +1,18 @@
+package com.my.v6.component;
+
+/**
+ * 可以主动汇报消费进度的事件处理器（仿Disruptor.SequenceReportingEventHandler）
+ * 默认情况下，MyBatchEventProcessor只会在一整批事件都消费完成后才更新消费序列
+ * 耗时较长的eventHandler可以在一批事件的中途（例如每刷完一段数据后），通过sequenceCallback.lazySet(sequence)提前汇报进度，
+ * 令生产者可以尽早复用已经处理完成的槽位，而不需要等待整批结束
+ * 一批事件消费完成后，MyBatchEventProcessor依然会把消费序列lazySet为这一批的最后一个序列，因此endOfBatch时不需要再汇报
+ * */
+public interface MySequenceReportingEventHandler<T> extends MyEventHandler<T> {
+
+    /**
+     * 在消费者创建时回调，传入当前消费者的消费序列
+     * @param sequenceCallback 当前消费者的消费序列（只允许设置为已经消费完成的序列）
+     * */
+    void setSequenceCallback(MySequence sequenceCallback);
+
+}
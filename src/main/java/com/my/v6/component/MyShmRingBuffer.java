@@ -0,0 +1,242 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于共享内存（/dev/shm下的内存映射文件）的跨进程环形队列
+ * 槽位数据、availableBuffer、生产者序列以及消费者序列都存放在共享内存中
+ * 一个进程create创建ringBuffer，其它进程attach连接同一个文件，生产者和消费者可以分布在不同的进程中
+ *
+ * 文件布局：
+ * | header(4096字节) | availableBuffer(按页对齐) | 槽位0 | 槽位1 | ... | 槽位bufferSize-1 |
+ * header内每个值独占一个缓存行：
+ * | magic/bufferSize/recordSize/producerType/consumerCount | 生产者序列 | 消费者0的序列 | 消费者1的序列 | ... |
+ *
+ * 消费者的个数在create时就固定下来，每个消费者进程通过consumerSequence(consumerId)获得自己的消费序列来创建消费者：
+ * new MyBatchEventProcessor<>(ringBuffer, handler, ringBuffer.newBarrier(), maxBatchSize, ringBuffer.consumerSequence(consumerId))
+ * 生产者会等待所有consumerCount个消费者，因此每个消费者编号都必须有对应的消费者在消费
+ *
+ * 注意：
+ * 1 阻塞类的等待策略（包括MyParkingWaitStrategy）只能唤醒本进程内的消费者，因此不允许使用，需要使用自旋/yield/sleep类的等待策略
+ * 2 单线程生产者模式下，同一时刻只能有一个进程的一个线程生产
+ * 3 多线程生产者模式下，如果生产者进程在申请序列之后、发布之前崩溃，消费者会永远卡在这个序列上
+ * */
+public class MyShmRingBuffer<T extends MyFlyweight> extends MyOffHeapRingBuffer<T> {
+
+    private static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+    private static final long BUFFER_ADDRESS_OFFSET;
+
+    static {
+        try {
+            // 直接内存/映射内存的起始地址保存在Buffer.address字段中
+            BUFFER_ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final long MAGIC = 0x4D7953686D52696EL;
+    private static final int PAGE_SIZE = 4096;
+    private static final int HEADER_SIZE = PAGE_SIZE;
+    private static final int CACHE_LINE_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int BUFFER_SIZE_OFFSET = 8;
+    private static final int RECORD_SIZE_OFFSET = 12;
+    private static final int PRODUCER_TYPE_OFFSET = 16;
+    private static final int CONSUMER_COUNT_OFFSET = 20;
+    private static final int PRODUCER_SEQUENCE_OFFSET = CACHE_LINE_SIZE;
+    private static final int CONSUMER_SEQUENCE_OFFSET = CACHE_LINE_SIZE * 2;
+
+    /**
+     * header页中最多能存放的消费者序列个数
+     * */
+    public static final int MAX_CONSUMERS = (HEADER_SIZE - CONSUMER_SEQUENCE_OFFSET) / CACHE_LINE_SIZE;
+
+    /**
+     * 持有映射内存的引用，避免映射内存被GC回收时解除映射
+     * */
+    private final MappedByteBuffer mappedBuffer;
+    private final MySequence[] consumerSequences;
+    private final ProducerType producerType;
+
+    private MyShmRingBuffer(MyShmSequencer sequencer, MyEventFactory<T> flyweightFactory, int recordSize, long slotAddress,
+                            MappedByteBuffer mappedBuffer, MySequence[] consumerSequences, ProducerType producerType) {
+        super(sequencer, flyweightFactory, recordSize, slotAddress);
+        this.mappedBuffer = mappedBuffer;
+        this.consumerSequences = consumerSequences;
+        this.producerType = producerType;
+    }
+
+    /**
+     * 创建一个跨进程的ringBuffer（文件已存在则覆盖）
+     * @param file 共享内存文件（一般位于/dev/shm下，避免写入磁盘）
+     * @param producerType 生产者类型
+     * @param flyweightFactory 享元对象工厂
+     * @param recordSize 每个事件的固定长度（字节）
+     * @param bufferSize ringBuffer的容量
+     * @param consumerCount 消费者的个数
+     * @param myWaitStrategy 指定的消费者阻塞策略（只能是自旋/yield/sleep类的等待策略）
+     * */
+    public static <T extends MyFlyweight> MyShmRingBuffer<T> create(
+            File file, ProducerType producerType, MyEventFactory<T> flyweightFactory, int recordSize, int bufferSize,
+            int consumerCount, MyWaitStrategy myWaitStrategy) throws IOException {
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        if (consumerCount < 1 || consumerCount > MAX_CONSUMERS) {
+            throw new IllegalArgumentException("consumerCount must be in [1, " + MAX_CONSUMERS + "]");
+        }
+        checkWaitStrategy(myWaitStrategy);
+
+        final int alignedRecordSize = alignRecordSize(recordSize);
+        final long fileSize = slotOffset(bufferSize) + (long) alignedRecordSize * bufferSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("共享内存文件不能超过2GB：" + fileSize);
+        }
+
+        final MappedByteBuffer mappedBuffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            // 先截断再扩展，保证文件内容全部为0（不会读到旧文件中的magic）
+            randomAccessFile.setLength(0);
+            randomAccessFile.setLength(fileSize);
+            mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        }
+
+        final long headerAddress = UNSAFE.getLong(mappedBuffer, BUFFER_ADDRESS_OFFSET);
+        UNSAFE.putLong(headerAddress + PRODUCER_SEQUENCE_OFFSET, -1);
+        for (int i = 0; i < consumerCount; i++) {
+            UNSAFE.putLong(headerAddress + CONSUMER_SEQUENCE_OFFSET + (long) i * CACHE_LINE_SIZE, -1);
+        }
+        // availableBuffer中的标识初始化为-1（和MyMultiProducerSequencer一致）
+        final long availableBufferAddress = headerAddress + HEADER_SIZE;
+        for (int i = 0; i < bufferSize; i++) {
+            UNSAFE.putInt(availableBufferAddress + ((long) i << 2), -1);
+        }
+        UNSAFE.putInt(headerAddress + BUFFER_SIZE_OFFSET, bufferSize);
+        UNSAFE.putInt(headerAddress + RECORD_SIZE_OFFSET, alignedRecordSize);
+        UNSAFE.putInt(headerAddress + PRODUCER_TYPE_OFFSET, producerType.ordinal());
+        UNSAFE.putInt(headerAddress + CONSUMER_COUNT_OFFSET, consumerCount);
+        // magic最后写入，其它进程attach时看到magic就说明header已经初始化完成
+        UNSAFE.putLongVolatile(null, headerAddress + MAGIC_OFFSET, MAGIC);
+
+        return newRingBuffer(flyweightFactory, myWaitStrategy, mappedBuffer, headerAddress);
+    }
+
+    /**
+     * 连接一个已经由其它进程create好的ringBuffer
+     * bufferSize、recordSize、producerType以及消费者个数都从header中读取
+     * @param file 共享内存文件
+     * @param flyweightFactory 享元对象工厂
+     * @param myWaitStrategy 指定的消费者阻塞策略（只能是自旋/yield/sleep类的等待策略）
+     * */
+    public static <T extends MyFlyweight> MyShmRingBuffer<T> attach(
+            File file, MyEventFactory<T> flyweightFactory, MyWaitStrategy myWaitStrategy) throws IOException {
+        checkWaitStrategy(myWaitStrategy);
+
+        final MappedByteBuffer mappedBuffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            if (randomAccessFile.length() < HEADER_SIZE) {
+                throw new IllegalStateException("共享内存文件还未初始化：" + file);
+            }
+            mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+        }
+
+        final long headerAddress = UNSAFE.getLong(mappedBuffer, BUFFER_ADDRESS_OFFSET);
+        if (UNSAFE.getLongVolatile(null, headerAddress + MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalStateException("共享内存文件还未初始化：" + file);
+        }
+        final int bufferSize = UNSAFE.getInt(headerAddress + BUFFER_SIZE_OFFSET);
+        final int recordSize = UNSAFE.getInt(headerAddress + RECORD_SIZE_OFFSET);
+        if (mappedBuffer.capacity() != slotOffset(bufferSize) + (long) recordSize * bufferSize) {
+            throw new IllegalStateException("共享内存文件的大小与header不匹配：" + file);
+        }
+
+        return newRingBuffer(flyweightFactory, myWaitStrategy, mappedBuffer, headerAddress);
+    }
+
+    private static <T extends MyFlyweight> MyShmRingBuffer<T> newRingBuffer(
+            MyEventFactory<T> flyweightFactory, MyWaitStrategy myWaitStrategy, MappedByteBuffer mappedBuffer, long headerAddress) {
+        final int bufferSize = UNSAFE.getInt(headerAddress + BUFFER_SIZE_OFFSET);
+        final int recordSize = UNSAFE.getInt(headerAddress + RECORD_SIZE_OFFSET);
+        final ProducerType producerType = ProducerType.values()[UNSAFE.getInt(headerAddress + PRODUCER_TYPE_OFFSET)];
+        final int consumerCount = UNSAFE.getInt(headerAddress + CONSUMER_COUNT_OFFSET);
+
+        final MySequence[] consumerSequences = new MySequence[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            consumerSequences[i] = new MyMappedSequence(
+                    mappedBuffer, headerAddress + CONSUMER_SEQUENCE_OFFSET + (long) i * CACHE_LINE_SIZE, false, -1);
+        }
+        final MySequence producerSequence = new MyMappedSequence(mappedBuffer, headerAddress + PRODUCER_SEQUENCE_OFFSET, false, -1);
+
+        final MyShmSequencer sequencer = new MyShmSequencer(bufferSize, producerType == ProducerType.MULTI, myWaitStrategy,
+                producerSequence, headerAddress + HEADER_SIZE, consumerSequences);
+        return new MyShmRingBuffer<>(sequencer, flyweightFactory, recordSize, headerAddress + slotOffset(bufferSize),
+                mappedBuffer, consumerSequences, producerType);
+    }
+
+    /**
+     * 阻塞类的等待策略（包括MyParkingWaitStrategy）依赖进程内的锁/条件变量/unpark唤醒消费者，跨进程时消费者永远不会被唤醒
+     * 因此只允许不依赖唤醒、自己轮询序列的等待策略（白名单，未知的等待策略一律拒绝）
+     * */
+    private static void checkWaitStrategy(MyWaitStrategy myWaitStrategy) {
+        if (!isCrossProcessWaitStrategy(myWaitStrategy)) {
+            throw new IllegalArgumentException("跨进程的ringBuffer只支持自旋/yield/sleep类的等待策略：" + myWaitStrategy.getClass().getSimpleName());
+        }
+    }
+
+    private static boolean isCrossProcessWaitStrategy(MyWaitStrategy myWaitStrategy) {
+        if (myWaitStrategy instanceof MyBusySpinWaitStrategy
+                || myWaitStrategy instanceof MyYieldingWaitStrategy
+                || myWaitStrategy instanceof MySleepingWaitStrategy) {
+            return true;
+        }
+        // 分阶段退避策略最终会落到兜底策略上（withLock/withLiteLock的兜底策略是阻塞类的）
+        if (myWaitStrategy instanceof MyPhasedBackoffWaitStrategy) {
+            return isCrossProcessWaitStrategy(((MyPhasedBackoffWaitStrategy) myWaitStrategy).getFallbackStrategy());
+        }
+        return false;
+    }
+
+    /**
+     * 第一个槽位在文件中的偏移量（availableBuffer按页对齐）
+     * */
+    private static long slotOffset(int bufferSize) {
+        final long availableBufferSize = ((long) bufferSize << 2);
+        return HEADER_SIZE + ((availableBufferSize + PAGE_SIZE - 1) & ~((long) PAGE_SIZE - 1));
+    }
+
+    /**
+     * 获得共享内存中的消费者序列，用于创建消费者（new MyBatchEventProcessor(..., consumerSequence)）
+     * 消费者重新连接时会从该序列之后继续消费
+     * @param consumerId 消费者编号（0 ~ getConsumerCount()-1）
+     * */
+    public MySequence consumerSequence(int consumerId) {
+        if (consumerId < 0 || consumerId >= this.consumerSequences.length) {
+            throw new IllegalArgumentException("consumerId must be in [0, " + this.consumerSequences.length + ")");
+        }
+        return this.consumerSequences[consumerId];
+    }
+
+    public int getConsumerCount() {
+        return this.consumerSequences.length;
+    }
+
+    public ProducerType getProducerType() {
+        return this.producerType;
+    }
+
+    /**
+     * 映射内存会在MappedByteBuffer被GC回收时解除映射，共享内存文件需要由使用方在所有进程都退出后删除
+     * */
+    @Override
+    public void release() {
+    }
+
+}
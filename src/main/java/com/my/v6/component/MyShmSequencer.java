@@ -0,0 +1,308 @@
+package com.my.v6.component;
+
+import sun.misc.Unsafe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 跨进程的生产者序列器（由MyShmRingBuffer创建）
+ * 生产者序列（cursor）、availableBuffer以及消费者序列都存放在共享内存中，多个进程通过同一块共享内存协调生产与消费
+ * 单线程生产者模式：只允许一个进程中的一个线程生产
+ * 多线程生产者模式：多个进程中的多个线程可以并发的生产（cas争抢共享内存中的cursor，通过共享内存中的availableBuffer标识发布状态）
+ *
+ * 共享内存中的消费者序列在创建ringBuffer时就已经注册为gating序列了，不受addGatingConsumerSequence/removeConsumerSequence的影响
+ * 注意：唤醒阻塞的消费者只能在进程内进行，跨进程的消费者需要使用不依赖唤醒的等待策略（自旋/yield/sleep）
+ */
+public class MyShmSequencer implements MyProducerSequencer {
+
+    private static final Unsafe UNSAFE = UnsafeUtil.getUnsafe();
+
+    private final int ringBufferSize;
+    private final boolean multiProducer;
+    private final MySequence currentProducerSequence;
+    /**
+     * 共享内存中的消费者序列（gating序列）
+     * */
+    private final MySequence[] sharedConsumerSequences;
+
+    /**
+     * 消费者序列集合（包括共享内存中的消费者序列，以及当前进程内通过addGatingConsumerSequence注册的消费者序列）
+     */
+    private volatile MySequence[] gatingConsumerSequences;
+
+    private static final AtomicReferenceFieldUpdater<MyShmSequencer, MySequence[]> SEQUENCE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(MyShmSequencer.class, MySequence[].class, "gatingConsumerSequences");
+
+    private final MyWaitStrategy myWaitStrategy;
+
+    /**
+     * 缓存的最慢的消费者序列（只是一个下界，每个进程各自缓存即可）
+     * */
+    private final MySequence gatingSequenceCache = new MySequence();
+    private final MySequence producerParkCount = new MySequence(0);
+    private final MySequence producerParkNanos = new MySequence(0);
+
+    /**
+     * 共享内存中availableBuffer的起始地址（int数组，只在多线程生产者模式下使用）
+     * */
+    private final long availableBufferAddress;
+    private final int indexMask;
+    private final int indexShift;
+
+    /**
+     * 单线程生产者模式下，当前已申请的序列（生产者进程内部使用）
+     * */
+    private long nextValue;
+
+    MyShmSequencer(int ringBufferSize, boolean multiProducer, MyWaitStrategy myWaitStrategy,
+                   MySequence currentProducerSequence, long availableBufferAddress, MySequence[] sharedConsumerSequences) {
+        this.ringBufferSize = ringBufferSize;
+        this.multiProducer = multiProducer;
+        this.myWaitStrategy = myWaitStrategy;
+        this.currentProducerSequence = currentProducerSequence;
+        this.availableBufferAddress = availableBufferAddress;
+        this.sharedConsumerSequences = sharedConsumerSequences;
+        this.gatingConsumerSequences = sharedConsumerSequences.clone();
+        this.indexMask = ringBufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(ringBufferSize);
+        // 生产者进程重新连接时，从共享内存中的cursor继续生产
+        this.nextValue = currentProducerSequence.get();
+    }
+
+    @Override
+    public long next() {
+        return next(1);
+    }
+
+    @Override
+    public long next(int n) {
+        if (!this.multiProducer) {
+            long nextProducerSequence = this.nextValue + n;
+            long wrapPoint = nextProducerSequence - this.ringBufferSize;
+            if (wrapPoint > this.gatingSequenceCache.get()) {
+                long minSequence;
+                long parkStart = 0;
+                while (wrapPoint > (minSequence = SequenceUtil.getMinimumSequence(nextProducerSequence, this.gatingConsumerSequences))) {
+                    if (parkStart == 0) {
+                        parkStart = System.nanoTime();
+                    }
+                    LockSupport.parkNanos(1L);
+                    this.producerParkCount.addAndGet(1);
+                }
+                if (parkStart != 0) {
+                    this.producerParkNanos.addAndGet(System.nanoTime() - parkStart);
+                }
+                this.gatingSequenceCache.set(minSequence);
+            }
+            this.nextValue = nextProducerSequence;
+            return nextProducerSequence;
+        }
+
+        // 多线程生产者：和MyMultiProducerSequencer一样cas争抢cursor，只是cursor在共享内存中（跨进程的cas同样是原子的）
+        do {
+            long currentMaxProducerSequenceNum = this.currentProducerSequence.get();
+            long nextProducerSequence = currentMaxProducerSequenceNum + n;
+            long wrapPoint = nextProducerSequence - this.ringBufferSize;
+            long cachedGatingSequence = this.gatingSequenceCache.get();
+
+            if (wrapPoint > cachedGatingSequence) {
+                long gatingSequence = SequenceUtil.getMinimumSequence(currentMaxProducerSequenceNum, this.gatingConsumerSequences);
+                if (wrapPoint > gatingSequence) {
+                    long parkStart = System.nanoTime();
+                    LockSupport.parkNanos(1);
+                    this.producerParkCount.addAndGet(1);
+                    this.producerParkNanos.addAndGet(System.nanoTime() - parkStart);
+                    continue;
+                }
+                this.gatingSequenceCache.set(gatingSequence);
+            } else if (this.currentProducerSequence.compareAndSet(currentMaxProducerSequenceNum, nextProducerSequence)) {
+                return nextProducerSequence;
+            }
+        } while (true);
+    }
+
+    @Override
+    public long tryNext() throws MyInsufficientCapacityException {
+        return tryNext(1);
+    }
+
+    @Override
+    public long tryNext(int n) throws MyInsufficientCapacityException {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        if (!this.multiProducer) {
+            if (!hasAvailableCapacity(n, this.nextValue)) {
+                throw MyInsufficientCapacityException.INSTANCE;
+            }
+            this.nextValue += n;
+            return this.nextValue;
+        }
+
+        long currentMaxProducerSequenceNum;
+        long nextProducerSequence;
+        do {
+            currentMaxProducerSequenceNum = this.currentProducerSequence.get();
+            nextProducerSequence = currentMaxProducerSequenceNum + n;
+            if (!hasAvailableCapacity(n, currentMaxProducerSequenceNum)) {
+                throw MyInsufficientCapacityException.INSTANCE;
+            }
+        } while (!this.currentProducerSequence.compareAndSet(currentMaxProducerSequenceNum, nextProducerSequence));
+
+        return nextProducerSequence;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(int requiredCapacity) {
+        return hasAvailableCapacity(requiredCapacity, claimedSequence());
+    }
+
+    private boolean hasAvailableCapacity(int requiredCapacity, long claimedSequence) {
+        long wrapPoint = (claimedSequence + requiredCapacity) - this.ringBufferSize;
+        if (wrapPoint > this.gatingSequenceCache.get()) {
+            long minSequence = SequenceUtil.getMinimumSequence(claimedSequence, this.gatingConsumerSequences);
+            this.gatingSequenceCache.set(minSequence);
+            return wrapPoint <= minSequence;
+        }
+        return true;
+    }
+
+    @Override
+    public long remainingCapacity() {
+        // 可能在生产者之外的线程（例如jmx）中调用，单生产者模式下不能读取生产者线程私有的nextValue
+        long produced = this.currentProducerSequence.get();
+        long consumed = SequenceUtil.getMinimumSequence(produced, this.gatingConsumerSequences);
+        return this.ringBufferSize - (produced - consumed);
+    }
+
+    /**
+     * 已经申请了的最大序列
+     * */
+    private long claimedSequence() {
+        return this.multiProducer ? this.currentProducerSequence.get() : this.nextValue;
+    }
+
+    @Override
+    public void publish(long publishIndex) {
+        if (this.multiProducer) {
+            setAvailable(publishIndex);
+        } else {
+            this.currentProducerSequence.lazySet(publishIndex);
+        }
+        this.myWaitStrategy.signalWhenBlocking();
+    }
+
+    @Override
+    public void publish(long lo, long hi) {
+        if (this.multiProducer) {
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                setAvailable(sequence);
+            }
+        } else {
+            this.currentProducerSequence.lazySet(hi);
+        }
+        this.myWaitStrategy.signalWhenBlocking();
+    }
+
+    @Override
+    public long getHighestPublishedSequence(long lowBound, long availableSequence) {
+        if (!this.multiProducer) {
+            return availableSequence;
+        }
+
+        // 和MyMultiProducerSequencer一样，普通读扫描，返回之前插入一次读屏障
+        int index = ((int) lowBound) & this.indexMask;
+        int flag = (int) (lowBound >>> this.indexShift);
+        for (long sequence = lowBound; sequence <= availableSequence; sequence++) {
+            if (UNSAFE.getInt(this.availableBufferAddress + ((long) index << 2)) != flag) {
+                UNSAFE.loadFence();
+                return sequence - 1;
+            }
+            if (++index == this.ringBufferSize) {
+                index = 0;
+                flag++;
+            }
+        }
+        UNSAFE.loadFence();
+        return availableSequence;
+    }
+
+    private void setAvailable(long sequence) {
+        int index = ((int) sequence) & this.indexMask;
+        int flag = (int) (sequence >>> this.indexShift);
+        // 写屏障，保证事件数据的写入先于发布标识的写入对其它进程可见
+        UNSAFE.putOrderedInt(null, this.availableBufferAddress + ((long) index << 2), flag);
+    }
+
+    @Override
+    public MySequenceBarrier newBarrier() {
+        return new MySequenceBarrier(this, this.currentProducerSequence, this.myWaitStrategy, new ArrayList<>());
+    }
+
+    @Override
+    public MySequenceBarrier newBarrier(MySequence... dependenceSequences) {
+        return new MySequenceBarrier(this, this.currentProducerSequence, this.myWaitStrategy, new ArrayList<>(Arrays.asList(dependenceSequences)));
+    }
+
+    @Override
+    public void addGatingConsumerSequence(MySequence newGatingConsumerSequence) {
+        addGatingConsumerSequenceList(newGatingConsumerSequence);
+    }
+
+    @Override
+    public void addGatingConsumerSequenceList(MySequence... newGatingConsumerSequences) {
+        // 共享内存中的消费者序列已经是gating序列了，不能重复注册（注册时会被重置为当前的生产者序列）
+        final MySequence[] localSequences = Arrays.stream(newGatingConsumerSequences)
+                .filter(sequence -> !isSharedConsumerSequence(sequence))
+                .toArray(MySequence[]::new);
+        if (localSequences.length > 0) {
+            MySequenceGroups.addSequences(this, SEQUENCE_UPDATER, this.currentProducerSequence, localSequences);
+        }
+    }
+
+    @Override
+    public void removeConsumerSequence(MySequence sequenceNeedRemove) {
+        if (!isSharedConsumerSequence(sequenceNeedRemove)) {
+            MySequenceGroups.removeSequence(this, SEQUENCE_UPDATER, sequenceNeedRemove);
+        }
+    }
+
+    private boolean isSharedConsumerSequence(MySequence sequence) {
+        for (MySequence sharedConsumerSequence : this.sharedConsumerSequences) {
+            if (sharedConsumerSequence == sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public MySequence getCurrentProducerSequence() {
+        return this.currentProducerSequence;
+    }
+
+    @Override
+    public int getRingBufferSize() {
+        return this.ringBufferSize;
+    }
+
+    @Override
+    public MyWaitStrategy getWaitStrategy() {
+        return this.myWaitStrategy;
+    }
+
+    @Override
+    public long getProducerParkCount() {
+        return this.producerParkCount.get();
+    }
+
+    @Override
+    public long getProducerParkNanos() {
+        return this.producerParkNanos.get();
+    }
+
+}
@@ -25,7 +25,13 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
     /**
      * 消费者序列集合
      */
-    private final MySequence[] gatingConsumerSequences = new MySequence[0];
+    private volatile MySequence[] gatingConsumerSequences = new MySequence[0];
+
+    /**
+     * 生产者park等待的次数/总时间（只在ringBuffer已满的慢路径上更新，MySequence自带填充，不会和热点字段产生伪共享）
+     */
+    private final MySequence producerParkCount = new MySequence(0);
+    private final MySequence producerParkNanos = new MySequence(0);
 
     private static final AtomicReferenceFieldUpdater<MySingleProducerSequencer, MySequence[]> SEQUENCE_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(MySingleProducerSequencer.class, MySequence[].class, "gatingConsumerSequences");
@@ -97,9 +103,17 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
             // 当生产者发现确实当前已经超过了一圈，则必须去读最新的消费者序列了，看看消费者的消费进度是否推进了
             // 自旋
             // 这里的consumerSequence.get是对volatile变量的读，是实时的，强一致的读
+            long parkStart = 0;
             while (wrapPoint > (minSequence = SequenceUtil.getMinimumSequence(nextProducerSequence, gatingConsumerSequences))) {
+                if (parkStart == 0) {
+                    parkStart = System.nanoTime();
+                }
                 // 如果确实超过了一圈，则生产者无法获取可用的队列空间，循环的间歇性park阻塞
                 LockSupport.parkNanos(1L);
+                this.producerParkCount.addAndGet(1);
+            }
+            if (parkStart != 0) {
+                this.producerParkNanos.addAndGet(System.nanoTime() - parkStart);
             }
 
             // 满足条件了，则缓存获得最新的消费者序列
@@ -114,6 +128,54 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
         return nextProducerSequence;
     }
 
+    @Override
+    public long tryNext() throws MyInsufficientCapacityException {
+        return tryNext(1);
+    }
+
+    @Override
+    public long tryNext(int n) throws MyInsufficientCapacityException {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        if (!hasAvailableCapacity(n)) {
+            // 剩余容量不足，立即失败（抛出预先分配好的单例异常，没有额外的开销）
+            throw MyInsufficientCapacityException.INSTANCE;
+        }
+
+        this.nextValue += n;
+        return this.nextValue;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(int requiredCapacity) {
+        long nextValue = this.nextValue;
+        // 和next方法中一样，计算申请requiredCapacity个序列后的环绕临界点
+        long wrapPoint = (nextValue + requiredCapacity) - this.ringBufferSize;
+        long cachedGatingSequence = this.cachedConsumerSequenceValue;
+
+        if (wrapPoint > cachedGatingSequence) {
+            // 缓存的消费者序列不满足要求，实时的读一次最新的消费者序列
+            long minSequence = SequenceUtil.getMinimumSequence(nextValue, gatingConsumerSequences);
+            this.cachedConsumerSequenceValue = minSequence;
+
+            // 和next不同，这里不自旋等待，不满足直接返回false
+            return wrapPoint <= minSequence;
+        }
+
+        return true;
+    }
+
+    @Override
+    public long remainingCapacity() {
+        // 可能在生产者之外的线程（例如jmx）中调用，不能读取生产者线程私有的nextValue，以已发布的生产者序列为准
+        // （已申请但还未发布的槽位会被算作剩余容量，与MyMultiProducerSequencer的口径一致）
+        long produced = this.currentProducerSequence.get();
+        long consumed = SequenceUtil.getMinimumSequence(produced, gatingConsumerSequences);
+        return this.ringBufferSize - (produced - consumed);
+    }
+
     @Override
     public void publish(long publishIndex) {
         // 发布时，更新生产者队列
@@ -124,6 +186,12 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
         this.myWaitStrategy.signalWhenBlocking();
     }
 
+    @Override
+    public void publish(long lo, long hi) {
+        // 单线程生产者的序列是连续发布的，直接发布区间的最大值即可
+        publish(hi);
+    }
+
     @Override
     public MySequenceBarrier newBarrier(){
         return new MySequenceBarrier(this, this.currentProducerSequence,this.myWaitStrategy,new ArrayList<>());
@@ -149,6 +217,19 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
         return ringBufferSize;
     }
 
+    /**
+     * 将生产者序列直接设置为指定的值，用于从持久化的序列恢复（只能在生产者、消费者启动之前调用）
+     * */
+    public void claim(long sequence) {
+        this.nextValue = sequence;
+        this.currentProducerSequence.set(sequence);
+    }
+
+    @Override
+    public MyWaitStrategy getWaitStrategy() {
+        return this.myWaitStrategy;
+    }
+
     @Override
     public long getHighestPublishedSequence(long nextSequence, long availableSequence) {
         return availableSequence;
@@ -164,4 +245,14 @@ public class MySingleProducerSequencer implements MyProducerSequencer {
         MySequenceGroups.removeSequence(this,SEQUENCE_UPDATER,sequenceNeedRemove);
     }
 
+    @Override
+    public long getProducerParkCount() {
+        return this.producerParkCount.get();
+    }
+
+    @Override
+    public long getProducerParkNanos() {
+        return this.producerParkNanos.get();
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.my.v6.component;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 自旋 -> yield -> park睡眠 逐级退避的等待策略（仿Disruptor.SleepingWaitStrategy）
+ * 空闲时cpu占用很低，且生产者发布时不需要唤醒消费者（没有锁），代价是消费者被唤醒的延迟较高
+ */
+public class MySleepingWaitStrategy implements MyWaitStrategy {
+
+    private static final int DEFAULT_RETRIES = 200;
+    private static final long DEFAULT_SLEEP = 100;
+
+    /**
+     * 总的重试次数（前一半自旋，后一半yield，用完后park）
+     * */
+    private final int retries;
+
+    /**
+     * 每次park睡眠的纳秒数
+     * */
+    private final long sleepTimeNs;
+
+    public MySleepingWaitStrategy() {
+        this(DEFAULT_RETRIES, DEFAULT_SLEEP);
+    }
+
+    public MySleepingWaitStrategy(int retries) {
+        this(retries, DEFAULT_SLEEP);
+    }
+
+    public MySleepingWaitStrategy(int retries, long sleepTimeNs) {
+        this.retries = retries;
+        this.sleepTimeNs = sleepTimeNs;
+    }
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws MyAlertException {
+        long availableSequence;
+        int counter = retries;
+
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            counter = applyWaitMethod(mySequenceBarrier, counter);
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 消费者只会定时park，不会无限期阻塞，无需唤醒
+    }
+
+    private int applyWaitMethod(final MySequenceBarrier mySequenceBarrier, int counter) throws MyAlertException {
+        mySequenceBarrier.checkAlert();
+
+        if (counter > 100) {
+            // 第一阶段：自旋
+            --counter;
+        } else if (counter > 0) {
+            // 第二阶段：让出cpu
+            --counter;
+            Thread.yield();
+        } else {
+            // 第三阶段：短暂的park睡眠
+            LockSupport.parkNanos(sleepTimeNs);
+        }
+
+        return counter;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.my.v6.component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带超时时间的阻塞等待策略（仿Disruptor.TimeoutBlockingWaitStrategy）
+ * 阻塞超过指定时间依然没有新的事件可消费时，抛出MyTimeoutException，由消费者决定如何处理
+ */
+public class MyTimeoutBlockingWaitStrategy implements MyWaitStrategy, MyWaitStrategyMetrics {
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition processorNotifyCondition = lock.newCondition();
+
+    /**
+     * 消费者阻塞等待的次数（MySequence自带填充，避免和其它热点字段产生伪共享）
+     * */
+    private final MySequence blockCount = new MySequence(0);
+    private final long timeoutInNanos;
+
+    public MyTimeoutBlockingWaitStrategy(final long timeout, final TimeUnit units) {
+        this.timeoutInNanos = units.toNanos(timeout);
+    }
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws InterruptedException, MyAlertException, MyTimeoutException {
+        long nanos = timeoutInNanos;
+
+        if (currentProducerSequence.get() < currentConsumeSequence) {
+            lock.lock();
+            try {
+                while (currentProducerSequence.get() < currentConsumeSequence) {
+                    mySequenceBarrier.checkAlert();
+                    // awaitNanos返回的是剩余的等待时间，小于等于0说明已经超时了
+                    blockCount.addAndGet(1);
+                    nanos = processorNotifyCondition.awaitNanos(nanos);
+                    if (nanos <= 0) {
+                        throw MyTimeoutException.INSTANCE;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long availableSequence;
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            mySequenceBarrier.checkAlert();
+            LockSupport.parkNanos(1L);
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        lock.lock();
+        try {
+            processorNotifyCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getBlockCount() {
+        return this.blockCount.get();
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.my.v6.component;
+
+/**
+ * 消费者等待超时异常（用于在空闲时把控制权交还给消费者）
+ * */
+public class MyTimeoutException extends Exception{
+
+    /**
+     * 单例异常
+     * */
+    public static final MyTimeoutException INSTANCE = new MyTimeoutException();
+
+}
@@ -0,0 +1,16 @@
+package com.my.v6.component;
+
+/**
+ * 事件处理器的可选扩展接口（仿Disruptor.TimeoutHandler）
+ * MyEventHandler同时实现该接口时，在等待策略等待超时（一段时间内没有新事件）后会被回调
+ * 可以用于空闲时定时刷盘、发送心跳等，而不需要额外的定时器线程
+ * */
+public interface MyTimeoutHandler {
+
+    /**
+     * 等待超时时回调
+     * @param sequence 当前消费者已经消费完成的序列
+     * */
+    void onTimeout(long sequence) throws Exception;
+
+}
@@ -0,0 +1,39 @@
+package com.my.v6.component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程执行器
+ * 每个提交的任务（消费者）都运行在一个新的虚拟线程上，不会因为消费者比线程多而拒绝任务
+ * 配合MyParkingWaitStrategy使用，空闲的消费者不会占用载体线程
+ *
+ * 当前是Java 8的版本（虚拟线程不可用，退化为每个任务一个守护平台线程）
+ * Java 21的版本位于src/main/java21中，通过-P java21构建为multi-release jar，在Java 21及以上的jvm中运行时自动使用虚拟线程
+ */
+public final class MyVirtualThreads {
+
+    private MyVirtualThreads() {
+    }
+
+    /**
+     * 当前jvm是否支持虚拟线程
+     * */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * 创建一个每个任务一个线程的执行器
+     * @param namePrefix 线程名前缀（线程名为namePrefix + 编号）
+     * */
+    public static ExecutorService newExecutor(String namePrefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
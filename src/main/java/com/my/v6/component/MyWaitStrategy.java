@@ -9,8 +9,14 @@ public interface MyWaitStrategy {
 
     /**
      * 类似jdk Condition的await，如果不满足条件就会阻塞在该方法内，不返回
+     * 支持超时的等待策略在等待超时后会抛出MyTimeoutException
+     * @param currentConsumeSequence 当前消费者需要消费的序列
+     * @param currentProducerSequence 生产者序列
+     * @param dependentSequences 上游依赖的序列集合
+     * @param mySequenceBarrier 消费者所属的序列屏障（等待过程中用于检查是否被alert唤醒）
      * */
-    long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences) throws InterruptedException;
+    long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                 MySequenceBarrier mySequenceBarrier) throws InterruptedException, MyAlertException, MyTimeoutException;
 
     /**
      * 类似jdk Condition的signal，唤醒waitFor阻塞在该等待策略对象上的消费者线程
@@ -0,0 +1,14 @@
+package com.my.v6.component;
+
+/**
+ * 等待策略的可选扩展接口，会让消费者线程阻塞的等待策略通过它对外暴露阻塞次数（用于JMX监控）
+ * */
+public interface MyWaitStrategyMetrics {
+
+    /**
+     * 获得消费者线程阻塞等待的次数
+     * @return 阻塞次数
+     * */
+    long getBlockCount();
+
+}
@@ -1,6 +1,6 @@
 package com.my.v6.component;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 多线程消费者工作线程
@@ -14,13 +14,44 @@ public class MyWorkProcessor<T> implements MyEventProcessor {
     private final MySequenceBarrier sequenceBarrier;
     // MyWorkerPool中的workSequence，应该是线程组中各线程共享的一个变量
     private final MySequence workGroupSequence;
-
-    private final AtomicBoolean running = new AtomicBoolean(false);
+    /**
+     * 每次cas争抢的最大序列个数
+     * worker很多时，每个事件都cas一次workGroupSequence，这个共享的缓存行会成为整个workerPool的吞吐瓶颈
+     * 一次争抢一段连续的序列，在本地逐个消费，可以成倍的减少cas次数
+     * */
+    private final int claimSize;
+
+    /**
+     * 延迟统计（为null代表未开启）
+     * */
+    private MyLatencyRecorder myLatencyRecorder;
+    /**
+     * 消费者的运行状态（区分"未启动"和"已停止"：在线程真正开始运行之前调用halt，线程开始运行后也能感知到已被停止）
+     * */
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+    private final AtomicInteger running = new AtomicInteger(IDLE);
 
     public MyWorkProcessor(MyRingBuffer<T> myRingBuffer,
                            MyWorkHandler<T> myWorkHandler,
                            MySequenceBarrier sequenceBarrier,
                            MySequence workGroupSequence) {
+        this(myRingBuffer, myWorkHandler, sequenceBarrier, workGroupSequence, 1);
+    }
+
+    /**
+     * @param claimSize 每次cas争抢的最大序列个数（实际争抢的个数不会超过序列屏障已经允许消费的个数，避免抢走还未发布的序列）
+     * */
+    public MyWorkProcessor(MyRingBuffer<T> myRingBuffer,
+                           MyWorkHandler<T> myWorkHandler,
+                           MySequenceBarrier sequenceBarrier,
+                           MySequence workGroupSequence,
+                           int claimSize) {
+        if (claimSize < 1) {
+            throw new IllegalArgumentException("claimSize must be greater than 0");
+        }
+        this.claimSize = claimSize;
         this.myRingBuffer = myRingBuffer;
         this.myWorkHandler = myWorkHandler;
         this.sequenceBarrier = sequenceBarrier;
@@ -31,10 +62,17 @@ public class MyWorkProcessor<T> implements MyEventProcessor {
         return currentConsumeSequence;
     }
 
+    /**
+     * 开启延迟统计（需要在消费者启动之前设置）
+     * */
+    public void setLatencyRecorder(MyLatencyRecorder myLatencyRecorder) {
+        this.myLatencyRecorder = myLatencyRecorder;
+    }
+
     @Override
     public void halt() {
         // 当前消费者状态设置为停止
-        running.set(false);
+        running.set(HALTED);
 
         // 唤醒消费者线程（令其能立即检查到状态为停止）
         this.sequenceBarrier.alert();
@@ -42,47 +80,58 @@ public class MyWorkProcessor<T> implements MyEventProcessor {
 
     @Override
     public boolean isRunning() {
-        return this.running.get();
+        return this.running.get() == RUNNING;
     }
 
     @Override
     public void run() {
-        if (!running.compareAndSet(false, true)) {
-            throw new IllegalStateException("Thread is already running");
+        // 一开始运行的时候，状态为IDLE，此时将状态置为RUNNING，表示开始运行
+        if (!running.compareAndSet(IDLE, RUNNING)) {
+            if (running.get() == RUNNING) {
+                throw new IllegalStateException("Thread is already running");
+            }
+            // 线程开始运行之前就已经被halt了，直接结束（重置为IDLE，允许再次启动）
+            running.set(IDLE);
+            return;
         }
         this.sequenceBarrier.clearAlert();
+        // cas成功之后、clearAlert之前被halt的话，alert标记会被清除掉，这里需要再检查一次状态，否则消费者永远无法退出
+        if (running.get() != RUNNING) {
+            running.set(IDLE);
+            return;
+        }
 
         long nextConsumerIndex = this.currentConsumeSequence.get() + 1;
+        // 当前worker手头上争抢到的最后一个序列，nextConsumerIndex > claimEndIndex时说明手头上的序列都已经消费完了
+        long claimEndIndex = nextConsumerIndex - 1;
         // 设置哨兵值，保证第一次循环时nextConsumerIndex <= cachedAvailableSequence一定为false，走else分支通过序列屏障获得最大的可用序列号
         long cachedAvailableSequence = Long.MIN_VALUE;
 
-        // 最近是否处理过了序列
-        boolean processedSequence = true;
-
         while (true) {
             try {
-                if(processedSequence) {
-                    // 争抢到了一个新的待消费序列，但还未实际进行消费（标记为false）
-                    processedSequence = false;
-
-                    // 如果已经处理过序列，则重新cas的争抢一个新的待消费序列
+                if (nextConsumerIndex > claimEndIndex) {
+                    // 手头上的序列都已经消费完了，重新cas的争抢一段新的待消费序列[current + 1, current + claimCount]
+                    long current;
+                    int claimCount;
                     do {
-                        nextConsumerIndex = this.workGroupSequence.get() + 1L;
+                        current = this.workGroupSequence.get();
                         // 由于currentConsumeSequence会被注册到生产者侧，因此需要始终和workGroupSequence worker组的实际sequence保持协调
                         // 即当前worker的消费序列currentConsumeSequence = 当前消费者组的序列workGroupSequence
-                        this.currentConsumeSequence.lazySet(nextConsumerIndex - 1L);
+                        this.currentConsumeSequence.lazySet(current);
                         // 问题：只使用workGroupSequence，每个worker不维护currentConsumeSequence行不行？
                         // 回答：这是不行的。因为和单线程消费者的行为一样，都是具体的消费者eventHandler/workHandler执行过之后才更新消费者的序列号，令其对外部可见（生产者、下游消费者）
                         // 因为消费依赖关系中约定，对于序列i事件只有在上游的消费者消费过后（eventHandler/workHandler执行过），下游才能消费序列i的事件
                         // workGroupSequence主要是用于通过cas协调同一workerPool内消费者线程序列争抢的，对外的约束依然需要workProcessor本地的消费者序列currentConsumeSequence来控制
 
-                        // cas更新，保证每个worker线程都会获取到唯一的一个sequence
-                    } while (!this.workGroupSequence.compareAndSet(nextConsumerIndex - 1L, nextConsumerIndex));
-                }else{
-                    // processedSequence == false(手头上存在一个还未消费的序列)
-                    // 走到这里说明之前拿到了一个新的消费序列，但是由于nextConsumerIndex > cachedAvailableSequence，没有实际执行消费逻辑
-                    // 而是被阻塞后返回获得了最新的cachedAvailableSequence，重新执行一次循环走到了这里
-                    // 需要先把手头上的这个序列给消费掉，才能继续拿下一个消费序列
+                        // 最多只争抢到序列屏障已经允许消费的位置（至少争抢一个），避免一个worker抢走还未发布的序列，而其它worker却没有事件可以消费
+                        claimCount = cachedAvailableSequence > current
+                                ? (int) Math.min(this.claimSize, cachedAvailableSequence - current) : 1;
+
+                        // cas更新，保证每个worker线程争抢到的序列段都是唯一的
+                    } while (!this.workGroupSequence.compareAndSet(current, current + claimCount));
+
+                    nextConsumerIndex = current + 1;
+                    claimEndIndex = current + claimCount;
                 }
 
                 // cachedAvailableSequence只会存在两种情况
@@ -91,30 +140,41 @@ public class MyWorkProcessor<T> implements MyEventProcessor {
 
                 if (nextConsumerIndex <= cachedAvailableSequence) {
                     // 争抢到的消费序列是满足要求的（小于序列屏障值，被序列屏障允许的），则调用消费者进行实际的消费
+                    // 先推进下标再消费，消费时发生异常也认为是成功消费了，避免阻塞消费序列
+                    final long sequence = nextConsumerIndex++;
 
                     // 取出可以消费的下标对应的事件，交给eventConsumer消费
-                    T event = myRingBuffer.get(nextConsumerIndex);
+                    T event = myRingBuffer.get(sequence);
                     this.myWorkHandler.consume(event);
-
-                    // 实际调用消费者进行消费了，标记为true.这样一来就可以在下次循环中cas争抢下一个新的消费序列了
-                    processedSequence = true;
+                    if (this.myLatencyRecorder != null) {
+                        this.myLatencyRecorder.recordConsumed(sequence);
+                    }
+
+                    if (sequence < claimEndIndex) {
+                        // 争抢到的序列段还没有消费完，对外汇报已经消费到的位置（序列段之前的序列都已经被消费，或者由其它worker的消费序列约束）
+                        // 序列段的最后一个序列不需要在这里汇报，下一次争抢时会统一更新
+                        this.currentConsumeSequence.lazySet(sequence);
+                    }
                 } else {
                     // 1 第一次循环会获取当前序列屏障的最大可消费序列
                     // 2 非第一次循环，说明争抢到的序列超过了屏障序列的最大值，等待生产者推进到争抢到的sequence
                     cachedAvailableSequence = sequenceBarrier.getAvailableConsumeSequence(nextConsumerIndex);
                 }
+            } catch (final MyTimeoutException ex) {
+                // 等待超时，手头上的序列还未消费（nextConsumerIndex没有推进），重新进入循环继续等待即可
             } catch (final MyAlertException ex) {
                 // 被外部alert打断，检查running标记
-                if (!running.get()) {
-                    // running == false, break跳出主循环，运行结束
+                if (running.get() != RUNNING) {
+                    // 已经被halt了, break跳出主循环，运行结束
                     break;
                 }
             } catch (final Throwable ex) {
-                // 消费者消费时发生了异常，也认为是成功消费了，避免阻塞消费序列
-                // 下次循环会cas争抢一个新的消费序列
-                processedSequence = true;
+                // 消费者消费时发生了异常，也认为是成功消费了（消费前已经推进了nextConsumerIndex），继续消费下一个序列
             }
         }
+
+        // 运行结束，重置为IDLE（允许再次启动）
+        running.set(IDLE);
     }
 
 }
@@ -29,6 +29,17 @@ public class MyWorkerPool<T> {
             MyRingBuffer<T> myRingBuffer,
             MySequenceBarrier mySequenceBarrier,
             MyWorkHandler<T>... myWorkHandlerList) {
+        this(myRingBuffer, mySequenceBarrier, 1, myWorkHandlerList);
+    }
+
+    /**
+     * @param claimSize 每个worker每次cas争抢的最大序列个数
+     * */
+    public MyWorkerPool(
+            MyRingBuffer<T> myRingBuffer,
+            MySequenceBarrier mySequenceBarrier,
+            int claimSize,
+            MyWorkHandler<T>... myWorkHandlerList) {
 
         this.myRingBuffer = myRingBuffer;
         final int numWorkers = myWorkHandlerList.length;
@@ -40,7 +51,8 @@ public class MyWorkerPool<T> {
                     myRingBuffer,
                     myEventConsumer,
                     mySequenceBarrier,
-                    this.workSequence));
+                    this.workSequence,
+                    claimSize));
         }
     }
 
@@ -57,6 +69,10 @@ public class MyWorkerPool<T> {
         return sequences;
     }
 
+    public List<MyWorkProcessor<T>> getWorkProcessors() {
+        return workEventProcessorList;
+    }
+
     public MyRingBuffer<T> start(final Executor executor) {
         final long cursor = myRingBuffer.getCurrentProducerSequence().get();
         workSequence.set(cursor);
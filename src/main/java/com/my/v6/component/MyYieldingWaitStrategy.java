@@ -0,0 +1,47 @@
+package com.my.v6.component;
+
+import java.util.List;
+
+/**
+ * 自旋 + yield让出cpu的等待策略（仿Disruptor.YieldingWaitStrategy）
+ * 先自旋一定次数，之后通过Thread.yield让出cpu，在低延迟和cpu占用之间做折中
+ */
+public class MyYieldingWaitStrategy implements MyWaitStrategy {
+
+    /**
+     * 开始yield前的自旋次数
+     * */
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long currentConsumeSequence, MySequence currentProducerSequence, List<MySequence> dependentSequences,
+                        MySequenceBarrier mySequenceBarrier) throws MyAlertException {
+        long availableSequence;
+        int counter = SPIN_TRIES;
+
+        while ((availableSequence = SequenceUtil.getMinimumSequence(dependentSequences)) < currentConsumeSequence) {
+            counter = applyWaitMethod(mySequenceBarrier, counter);
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalWhenBlocking() {
+        // 消费者不会阻塞，无需唤醒
+    }
+
+    private int applyWaitMethod(final MySequenceBarrier mySequenceBarrier, int counter) throws MyAlertException {
+        mySequenceBarrier.checkAlert();
+
+        if (0 == counter) {
+            // 自旋次数用完了，让出cpu
+            Thread.yield();
+        } else {
+            --counter;
+        }
+
+        return counter;
+    }
+
+}
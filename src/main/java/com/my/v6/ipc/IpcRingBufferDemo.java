@@ -0,0 +1,88 @@
+package com.my.v6.ipc;
+
+import com.my.v6.component.*;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 跨进程ringBuffer示例
+ * 先启动生产者进程：java com.my.v6.ipc.IpcRingBufferDemo producer
+ * 再启动消费者进程：java com.my.v6.ipc.IpcRingBufferDemo consumer
+ * 生产者创建共享内存文件并发布EVENT_COUNT个事件，消费者连接同一个文件消费并统计跨进程的平均延迟
+ */
+public class IpcRingBufferDemo {
+
+    private static final int EVENT_COUNT = 1_000_000;
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final MyEventTranslatorOneArg<PingFlyweight, Long> PING_TRANSLATOR =
+            (pingEvent, sequence, value) -> {
+                pingEvent.setValue(value);
+                pingEvent.setPublishNanos(System.nanoTime());
+            };
+
+    public static void main(String[] args) throws Exception {
+        File file = new File("/dev/shm/my-disruptor-ipc.ring");
+        if (args.length > 0 && "consumer".equals(args[0])) {
+            runConsumer(file);
+        } else {
+            runProducer(file);
+        }
+    }
+
+    private static void runProducer(File file) throws Exception {
+        MyShmRingBuffer<PingFlyweight> ringBuffer = MyShmRingBuffer.create(
+                file, ProducerType.MULTI, PingFlyweight::new, PingFlyweight.RECORD_SIZE, BUFFER_SIZE, 1, new MyYieldingWaitStrategy());
+        System.out.println("生产者创建共享内存文件：" + file);
+
+        for (long i = 0; i < EVENT_COUNT; i++) {
+            ringBuffer.publishEvent(PING_TRANSLATOR, i);
+        }
+
+        // 等待消费者进程消费完所有事件之后再删除共享内存文件
+        while (ringBuffer.consumerSequence(0).get() < ringBuffer.getCurrentProducerSequence().get()) {
+            Thread.sleep(1);
+        }
+        System.out.println("生产者发布完成，事件总数=" + EVENT_COUNT);
+        ringBuffer.release();
+        file.delete();
+    }
+
+    private static void runConsumer(File file) throws Exception {
+        MyShmRingBuffer<PingFlyweight> ringBuffer = null;
+        // 等待生产者进程创建好共享内存文件
+        while (ringBuffer == null) {
+            try {
+                ringBuffer = MyShmRingBuffer.attach(file, PingFlyweight::new, new MyYieldingWaitStrategy());
+            } catch (Exception e) {
+                Thread.sleep(10);
+            }
+        }
+
+        long[] stats = new long[2];
+        MyBatchEventProcessor<PingFlyweight> eventProcessor = new MyBatchEventProcessor<>(
+                ringBuffer,
+                (event, sequence, endOfBatch) -> {
+                    stats[0]++;
+                    stats[1] += System.nanoTime() - event.getPublishNanos();
+                },
+                ringBuffer.newBarrier(),
+                Integer.MAX_VALUE,
+                ringBuffer.consumerSequence(0));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<PingFlyweight> myDisruptor = new MyDisruptor<>(ringBuffer, executor);
+        myDisruptor.handleEventsWith(eventProcessor);
+        myDisruptor.start();
+
+        while (eventProcessor.getCurrentConsumeSequence().get() < EVENT_COUNT - 1) {
+            Thread.sleep(1);
+        }
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        System.out.println("消费者消费完成，事件总数=" + stats[0] + " 平均延迟(ns)=" + stats[1] / stats[0]);
+    }
+}
@@ -0,0 +1,42 @@
+package com.my.v6.ipc;
+
+import com.my.v6.component.MyFlyweight;
+
+/**
+ * 跨进程传递的事件
+ * 记录布局：| value(long) | publishNanos(long) |
+ */
+public class PingFlyweight extends MyFlyweight {
+
+    private static final int VALUE_OFFSET = 0;
+    private static final int PUBLISH_NANOS_OFFSET = VALUE_OFFSET + 8;
+
+    public static final int RECORD_SIZE = PUBLISH_NANOS_OFFSET + 8;
+
+    public long getValue() {
+        return getLong(VALUE_OFFSET);
+    }
+
+    public void setValue(long value) {
+        putLong(VALUE_OFFSET, value);
+    }
+
+    /**
+     * 发布时的System.nanoTime（同一台机器上不同进程的nanoTime是可比较的）
+     * */
+    public long getPublishNanos() {
+        return getLong(PUBLISH_NANOS_OFFSET);
+    }
+
+    public void setPublishNanos(long publishNanos) {
+        putLong(PUBLISH_NANOS_OFFSET, publishNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "PingFlyweight{" +
+                "value=" + getValue() +
+                ", publishNanos=" + getPublishNanos() +
+                '}';
+    }
+}
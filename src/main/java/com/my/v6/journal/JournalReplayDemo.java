@@ -0,0 +1,76 @@
+package com.my.v6.journal;
+
+import com.my.v6.component.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志写入与回放示例
+ * 第一阶段：journaller -> 业务消费者，事件先落盘再交给业务处理
+ * 第二阶段（模拟重启）：先通过日志回放恢复业务状态，再继续处理新的事件（journaller跳过回放的事件，新的事件接在日志末尾继续写入）
+ */
+public class JournalReplayDemo {
+
+    private static final MyJournalCodec<long[]> CODEC = new MyJournalCodec<long[]>() {
+        @Override
+        public void encode(long[] event, ByteBuffer buffer) {
+            buffer.putLong(event[0]);
+        }
+
+        @Override
+        public void decode(ByteBuffer buffer, long[] event) {
+            event[0] = buffer.getLong();
+        }
+    };
+
+    /**
+     * 业务状态：所有事件的累加值
+     * */
+    private static long total;
+
+    public static void main(String[] args) throws Exception {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "my-disruptor-journal");
+        for (File segment : MyJournal.listSegments(directory)) {
+            segment.delete();
+        }
+
+        // 第一阶段：正常处理事件
+        run(directory, 1000000, false);
+        System.out.println("第一阶段业务状态=" + total);
+
+        // 第二阶段：模拟重启，业务状态丢失，通过回放日志恢复
+        total = 0;
+        run(directory, 10, true);
+        System.out.println("第二阶段业务状态=" + total + " 日志中最后的序列=" + MyJournal.lastSequence(directory));
+    }
+
+    private static void run(File directory, int liveEvents, boolean replay) throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<long[]> myDisruptor = new MyDisruptor<>(
+                () -> new long[1], 1024 * 16, executor, ProducerType.SINGLE, new MyBlockingWaitStrategy());
+        MyJournalEventHandler<long[]> journalEventHandler = new MyJournalEventHandler<>(directory, CODEC);
+        myDisruptor.handleEventsWith(journalEventHandler)
+                .then((event, sequence, endOfBatch) -> total += event[0]);
+        myDisruptor.start();
+
+        if (replay) {
+            // 回放器会告知journaller哪些事件是回放的，journaller不会重复写入
+            MyJournalReplayStatistics statistics = new MyJournalReplayer<>(directory, CODEC, journalEventHandler)
+                    .replay(myDisruptor.getRingBuffer(), 0, 1024);
+            System.out.println("回放完成：" + statistics);
+        }
+
+        for (int i = 0; i < liveEvents; i++) {
+            myDisruptor.publishEvent((event, sequence) -> event[0] = 1);
+        }
+
+        myDisruptor.shutdown(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        journalEventHandler.close();
+    }
+}
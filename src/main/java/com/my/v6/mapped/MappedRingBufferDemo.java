@@ -0,0 +1,57 @@
+package com.my.v6.mapped;
+
+import com.my.v6.component.*;
+import com.my.v6.offheap.OrderFlyweight;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存映射文件ringBuffer示例
+ * 多次运行该示例：每次运行都会从上一次运行（或崩溃）时持久化的生产者序列、消费者序列继续
+ */
+public class MappedRingBufferDemo {
+
+    private static final MyEventTranslatorTwoArg<OrderFlyweight, byte[], Integer> ORDER_TRANSLATOR =
+            (orderEvent, sequence, message, price) -> {
+                orderEvent.setMessage(message, message.length);
+                orderEvent.setPrice(price);
+            };
+
+    public static void main(String[] args) throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), "my-disruptor-mapped.ring");
+        MyMappedRingBuffer<OrderFlyweight> ringBuffer = MyMappedRingBuffer.open(
+                file, OrderFlyweight::new, OrderFlyweight.RECORD_SIZE, 16, new MyBlockingWaitStrategy());
+
+        // 消费者使用header页中持久化的0号消费者序列
+        MyBatchEventProcessor<OrderFlyweight> eventProcessor = new MyBatchEventProcessor<>(
+                ringBuffer,
+                (event, sequence, endOfBatch) -> System.out.println("消费者消费事件" + event + " sequence=" + sequence),
+                ringBuffer.newBarrier(),
+                Integer.MAX_VALUE,
+                ringBuffer.consumerSequence(0));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<OrderFlyweight> myDisruptor = new MyDisruptor<>(ringBuffer, executor);
+        myDisruptor.handleEventsWith(eventProcessor);
+        System.out.println("恢复的生产者序列=" + ringBuffer.getRecoveredProducerSequence()
+                + " 恢复的消费者序列=" + eventProcessor.getCurrentConsumeSequence().get());
+        myDisruptor.start();
+
+        byte[] message = "order".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 5; i++) {
+            myDisruptor.publishEvent(ORDER_TRANSLATOR, message, i * 10);
+        }
+
+        // 等待消费者线程真正开始运行并消费完（shutdown只会等待已经在运行的消费者）
+        while (eventProcessor.getCurrentConsumeSequence().get() < ringBuffer.getCurrentProducerSequence().get()) {
+            Thread.sleep(1);
+        }
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        ringBuffer.release();
+    }
+}
@@ -0,0 +1,44 @@
+package com.my.v6.offheap;
+
+import com.my.v6.component.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆外内存ringBuffer示例：事件数据全部存放在堆外，生产者/消费者通过享元对象读写
+ */
+public class OffHeapRingBufferDemo {
+
+    private static final MyEventTranslatorTwoArg<OrderFlyweight, byte[], Integer> ORDER_TRANSLATOR =
+            (orderEvent, sequence, message, price) -> {
+                orderEvent.setMessage(message, message.length);
+                orderEvent.setPrice(price);
+            };
+
+    public static void main(String[] args) {
+        MyOffHeapRingBuffer<OrderFlyweight> ringBuffer = MyOffHeapRingBuffer.create(
+                ProducerType.SINGLE, OrderFlyweight::new, OrderFlyweight.RECORD_SIZE, 1024, new MyBlockingWaitStrategy());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<OrderFlyweight> myDisruptor = new MyDisruptor<>(ringBuffer, executor);
+
+        myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> {
+            if (sequence % 100000 == 0) {
+                System.out.println("消费者消费事件" + event + " sequence=" + sequence);
+            }
+        });
+        myDisruptor.start();
+
+        byte[] message = "order".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 1000000; i++) {
+            myDisruptor.publishEvent(ORDER_TRANSLATOR, message, i);
+        }
+
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        // 所有消费者都停止后才能释放堆外内存
+        ringBuffer.release();
+    }
+}
@@ -0,0 +1,56 @@
+package com.my.v6.offheap;
+
+import com.my.v6.component.MyFlyweight;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 堆外订单事件（OrderEventModel的享元版本）
+ * 记录布局：| price(int) | messageLength(int) | message(最多MAX_MESSAGE_LENGTH字节) |
+ */
+public class OrderFlyweight extends MyFlyweight {
+
+    public static final int MAX_MESSAGE_LENGTH = 56;
+
+    private static final int PRICE_OFFSET = 0;
+    private static final int MESSAGE_LENGTH_OFFSET = PRICE_OFFSET + 4;
+    private static final int MESSAGE_OFFSET = MESSAGE_LENGTH_OFFSET + 4;
+
+    public static final int RECORD_SIZE = MESSAGE_OFFSET + MAX_MESSAGE_LENGTH;
+
+    public int getPrice() {
+        return getInt(PRICE_OFFSET);
+    }
+
+    public void setPrice(int price) {
+        putInt(PRICE_OFFSET, price);
+    }
+
+    /**
+     * 将message拷贝到dst中（不创建新对象）
+     * @return message的长度
+     * */
+    public int getMessage(byte[] dst) {
+        int length = getInt(MESSAGE_LENGTH_OFFSET);
+        getBytes(MESSAGE_OFFSET, dst, 0, length);
+        return length;
+    }
+
+    public void setMessage(byte[] src, int length) {
+        if (length > MAX_MESSAGE_LENGTH) {
+            throw new IllegalArgumentException("message too long：" + length);
+        }
+        putInt(MESSAGE_LENGTH_OFFSET, length);
+        putBytes(MESSAGE_OFFSET, src, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        byte[] message = new byte[MAX_MESSAGE_LENGTH];
+        int length = getMessage(message);
+        return "OrderFlyweight{" +
+                "message='" + new String(message, 0, length, StandardCharsets.UTF_8) + '\'' +
+                ", price=" + getPrice() +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package com.my.v6.partition;
+
+import com.my.v6.component.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按key分区的workerPool示例
+ * 同一个订单的事件总是由同一个worker按序消费，每个worker内部使用普通的HashMap记录订单状态，不需要加锁
+ */
+public class PartitionedWorkerPoolDemo {
+
+    private static final int ORDER_COUNT = 100;
+    private static final int EVENT_COUNT = 100_000;
+    private static final int WORKER_COUNT = 4;
+
+    public static class OrderEvent {
+        long orderId;
+        long version;
+    }
+
+    private static final MyEventTranslatorTwoArg<OrderEvent, Long, Long> ORDER_TRANSLATOR =
+            (event, sequence, orderId, version) -> {
+                event.orderId = orderId;
+                event.version = version;
+            };
+
+    /**
+     * 每个worker独占的订单状态
+     * */
+    private static class OrderStateHandler implements MyWorkHandler<OrderEvent> {
+
+        private final Map<Long, Long> lastVersionByOrderId = new HashMap<>();
+        private final AtomicLong outOfOrderCount;
+        private final AtomicLong consumedCount;
+
+        OrderStateHandler(AtomicLong outOfOrderCount, AtomicLong consumedCount) {
+            this.outOfOrderCount = outOfOrderCount;
+            this.consumedCount = consumedCount;
+        }
+
+        @Override
+        public void consume(OrderEvent event) {
+            Long lastVersion = lastVersionByOrderId.put(event.orderId, event.version);
+            if (lastVersion != null && lastVersion >= event.version) {
+                outOfOrderCount.incrementAndGet();
+            }
+            consumedCount.incrementAndGet();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        MyDisruptor<OrderEvent> myDisruptor = new MyDisruptor<>(
+                OrderEvent::new, 1024, executor, ProducerType.SINGLE, new MyBlockingWaitStrategy());
+
+        AtomicLong outOfOrderCount = new AtomicLong();
+        AtomicLong consumedCount = new AtomicLong();
+        @SuppressWarnings("unchecked")
+        MyWorkHandler<OrderEvent>[] workHandlers = (MyWorkHandler<OrderEvent>[]) new MyWorkHandler<?>[WORKER_COUNT];
+        for (int i = 0; i < WORKER_COUNT; i++) {
+            workHandlers[i] = new OrderStateHandler(outOfOrderCount, consumedCount);
+        }
+        // 以订单id作为分区key
+        myDisruptor.handleEventsWithPartitionedWorkerPool(event -> Long.hashCode(event.orderId), workHandlers);
+        myDisruptor.start();
+
+        long[] versionByOrderId = new long[ORDER_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            final int orderId = i % ORDER_COUNT;
+            myDisruptor.publishEvent(ORDER_TRANSLATOR, (long) orderId, ++versionByOrderId[orderId]);
+        }
+
+        while (consumedCount.get() < EVENT_COUNT) {
+            Thread.sleep(1);
+        }
+        myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        System.out.println("消费事件总数=" + consumedCount.get() + " 乱序事件数=" + outOfOrderCount.get());
+        for (int i = 0; i < WORKER_COUNT; i++) {
+            System.out.println("worker" + i + "负责的订单数=" + ((OrderStateHandler) workHandlers[i]).lastVersionByOrderId.size());
+        }
+    }
+}
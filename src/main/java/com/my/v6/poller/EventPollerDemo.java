@@ -0,0 +1,53 @@
+package com.my.v6.poller;
+
+import com.my.v6.component.*;
+import com.my.v6.test.OrderEventModel;
+
+/**
+ * 拉模式消费者示例
+ * 一个线程轮流poll两个ringBuffer，没有任何ringBuffer有新事件时才让出cpu
+ */
+public class EventPollerDemo {
+
+    private static final int EVENT_COUNT = 10;
+
+    public static void main(String[] args) throws Exception {
+        MyRingBuffer<OrderEventModel> ringBufferA = MyRingBuffer.create(ProducerType.SINGLE, OrderEventModel::new, 16, new MyYieldingWaitStrategy());
+        MyRingBuffer<OrderEventModel> ringBufferB = MyRingBuffer.create(ProducerType.SINGLE, OrderEventModel::new, 16, new MyYieldingWaitStrategy());
+
+        MyEventPoller<OrderEventModel> pollerA = ringBufferA.newPoller();
+        ringBufferA.addGatingConsumerSequenceList(pollerA.getSequence());
+        MyEventPoller<OrderEventModel> pollerB = ringBufferB.newPoller();
+        ringBufferB.addGatingConsumerSequenceList(pollerB.getSequence());
+
+        Thread eventLoop = new Thread(() -> {
+            MyEventPoller.Handler<OrderEventModel> handler = (event, sequence, endOfBatch) -> {
+                System.out.println("事件循环线程消费事件" + event + " sequence=" + sequence + " endOfBatch=" + endOfBatch);
+                return true;
+            };
+            while (pollerA.getSequence().get() < EVENT_COUNT - 1 || pollerB.getSequence().get() < EVENT_COUNT - 1) {
+                MyEventPoller.PollState stateA = pollerA.poll(handler);
+                MyEventPoller.PollState stateB = pollerB.poll(handler);
+                if (stateA != MyEventPoller.PollState.PROCESSING && stateB != MyEventPoller.PollState.PROCESSING) {
+                    // 模拟等待selector唤醒
+                    Thread.yield();
+                }
+            }
+        }, "event-loop");
+        eventLoop.start();
+
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            MyRingBuffer<OrderEventModel> ringBuffer = (i % 2 == 0) ? ringBufferA : ringBufferB;
+            final int price = i;
+            ringBuffer.publishEvent((event, sequence) -> {
+                event.setMessage("message-" + price);
+                event.setPrice(price);
+            });
+            ringBuffer.publishEvent((event, sequence) -> {
+                event.setMessage("message-" + (price + 100));
+                event.setPrice(price + 100);
+            });
+        }
+        eventLoop.join();
+    }
+}
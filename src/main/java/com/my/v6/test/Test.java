@@ -8,6 +8,16 @@ import java.util.concurrent.TimeUnit;
 
 public class Test {
 
+    /**
+     * 订单事件转换器（不捕获外部变量的lambda，全局只有一个实例）
+     * */
+    private static final MyEventTranslatorTwoArg<OrderEventModel, String, Integer> ORDER_TRANSLATOR =
+            (orderEvent, sequence, message, price) -> {
+                orderEvent.setMessage(message);
+                orderEvent.setPrice(price);
+                System.out.println("生产者发布事件：" + orderEvent);
+            };
+
     /**
      * 消费者依赖关系图（简单起见都是单线程消费者）：
      * A -> BC -> D
@@ -34,15 +44,9 @@ public class Test {
         // 启动disruptor中注册的所有消费者
         myDisruptor.start();
 
-        MyRingBuffer<OrderEventModel> myRingBuffer = myDisruptor.getRingBuffer();
-        // 生产者发布100个事件
+        // 生产者通过事件转换器发布5个事件（序列的申请与发布由ringBuffer负责）
         for(int i=0; i<5; i++) {
-            long nextIndex = myRingBuffer.next();
-            OrderEventModel orderEvent = myRingBuffer.get(nextIndex);
-            orderEvent.setMessage("message-"+i);
-            orderEvent.setPrice(i * 10);
-            System.out.println("生产者发布事件：" + orderEvent);
-            myRingBuffer.publish(nextIndex);
+            myDisruptor.publishEvent(ORDER_TRANSLATOR, "message-"+i, i * 10);
         }
     }
 
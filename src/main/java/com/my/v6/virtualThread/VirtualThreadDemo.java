@@ -0,0 +1,56 @@
+package com.my.v6.virtualThread;
+
+import com.my.v6.component.*;
+import com.my.v6.test.OrderEventModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 虚拟线程示例：RING_COUNT个低流量的ringBuffer，每个ringBuffer一个消费者，全部运行在虚拟线程上
+ * 使用jdk21运行-P java21构建出的multi-release jar时使用虚拟线程，否则退化为平台线程
+ */
+public class VirtualThreadDemo {
+
+    private static final int RING_COUNT = 500;
+    private static final int EVENT_COUNT_PER_RING = 10;
+
+    private static final MyEventTranslatorOneArg<OrderEventModel, Integer> PRICE_TRANSLATOR =
+            (event, sequence, price) -> event.setPrice(price);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("虚拟线程是否可用：" + MyVirtualThreads.isSupported());
+        ExecutorService executor = MyVirtualThreads.newExecutor("consumer-");
+        AtomicLong consumedCount = new AtomicLong();
+
+        List<MyDisruptor<OrderEventModel>> disruptorList = new ArrayList<>();
+        for (int i = 0; i < RING_COUNT; i++) {
+            // 协作式挂起的等待策略，空闲的消费者不会占用载体线程
+            MyDisruptor<OrderEventModel> myDisruptor = new MyDisruptor<>(
+                    OrderEventModel::new, 16, executor, ProducerType.SINGLE, new MyParkingWaitStrategy());
+            myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> consumedCount.incrementAndGet());
+            myDisruptor.start();
+            disruptorList.add(myDisruptor);
+        }
+
+        for (int n = 0; n < EVENT_COUNT_PER_RING; n++) {
+            for (MyDisruptor<OrderEventModel> myDisruptor : disruptorList) {
+                myDisruptor.publishEvent(PRICE_TRANSLATOR, n);
+            }
+            Thread.sleep(10);
+        }
+
+        while (consumedCount.get() < (long) RING_COUNT * EVENT_COUNT_PER_RING) {
+            Thread.sleep(1);
+        }
+        System.out.println("消费完成，事件总数=" + consumedCount.get() + " 线程总数=" + Thread.activeCount());
+
+        for (MyDisruptor<OrderEventModel> myDisruptor : disruptorList) {
+            myDisruptor.shutdown(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package com.my.v6.waitStrategy;
+
+import com.my.v6.component.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 不同等待策略下，一个生产者对一个消费者的吞吐量/延迟对比
+ * 吞吐量：生产者全速发布，统计消费完全部事件的耗时
+ * 延迟：生产者每发布一个事件后停顿一会（让消费者进入等待状态），统计事件从发布到被消费的平均/最大耗时
+ */
+public class WaitStrategyCompareDemo {
+
+    private static final int RING_BUFFER_SIZE = 1024 * 64;
+    private static final int THROUGHPUT_EVENTS = 10000000;
+    private static final int LATENCY_EVENTS = 20000;
+    private static final long LATENCY_PAUSE_NANOS = 10000;
+
+    public static void main(String[] args) throws InterruptedException {
+        compare("blocking", new MyBlockingWaitStrategy());
+        compare("liteBlocking", new MyLiteBlockingWaitStrategy());
+        compare("busySpin", new MyBusySpinWaitStrategy());
+        compare("yielding", new MyYieldingWaitStrategy());
+        compare("sleeping", new MySleepingWaitStrategy());
+        compare("phasedBackoff", MyPhasedBackoffWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS));
+    }
+
+    private static void compare(String name, MyWaitStrategy myWaitStrategy) throws InterruptedException {
+        // 先跑一轮预热，避免jit编译影响第一个策略的结果
+        runThroughput(myWaitStrategy, THROUGHPUT_EVENTS / 10);
+        long throughputCost = runThroughput(myWaitStrategy, THROUGHPUT_EVENTS);
+        LatencyHandler latencyHandler = runLatency(myWaitStrategy);
+
+        System.out.println(name + " 吞吐量=" + (THROUGHPUT_EVENTS / Math.max(throughputCost, 1)) + "ops/ms"
+                + " 平均延迟=" + (latencyHandler.totalLatency / LATENCY_EVENTS) + "ns"
+                + " 最大延迟=" + latencyHandler.maxLatency + "ns");
+    }
+
+    private static long runThroughput(MyWaitStrategy myWaitStrategy, int events) throws InterruptedException {
+        CountDownLatch countDownLatch = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        MyDisruptor<LongEvent> myDisruptor = new MyDisruptor<>(
+                LongEvent::new, RING_BUFFER_SIZE, executor, ProducerType.SINGLE, myWaitStrategy);
+        myDisruptor.handleEventsWith((event, sequence, endOfBatch) -> {
+            if (sequence == events - 1) {
+                countDownLatch.countDown();
+            }
+        });
+        myDisruptor.start();
+
+        MyRingBuffer<LongEvent> myRingBuffer = myDisruptor.getRingBuffer();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < events; i++) {
+            long nextIndex = myRingBuffer.next();
+            myRingBuffer.get(nextIndex).value = i;
+            myRingBuffer.publish(nextIndex);
+        }
+        countDownLatch.await();
+        long end = System.currentTimeMillis();
+
+        myDisruptor.halt();
+        executor.shutdown();
+        return end - start;
+    }
+
+    private static LatencyHandler runLatency(MyWaitStrategy myWaitStrategy) throws InterruptedException {
+        LatencyHandler latencyHandler = new LatencyHandler(LATENCY_EVENTS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        MyDisruptor<LongEvent> myDisruptor = new MyDisruptor<>(
+                LongEvent::new, RING_BUFFER_SIZE, executor, ProducerType.SINGLE, myWaitStrategy);
+        myDisruptor.handleEventsWith(latencyHandler);
+        myDisruptor.start();
+
+        MyRingBuffer<LongEvent> myRingBuffer = myDisruptor.getRingBuffer();
+        for (int i = 0; i < LATENCY_EVENTS; i++) {
+            long nextIndex = myRingBuffer.next();
+            // value存放的是发布时间
+            myRingBuffer.get(nextIndex).value = System.nanoTime();
+            myRingBuffer.publish(nextIndex);
+            LockSupport.parkNanos(LATENCY_PAUSE_NANOS);
+        }
+        latencyHandler.countDownLatch.await();
+
+        myDisruptor.halt();
+        executor.shutdown();
+        return latencyHandler;
+    }
+
+    private static class LongEvent {
+        private long value;
+    }
+
+    private static class LatencyHandler implements MyEventHandler<LongEvent> {
+
+        private final CountDownLatch countDownLatch = new CountDownLatch(1);
+        private final int events;
+        private long totalLatency;
+        private long maxLatency;
+
+        LatencyHandler(int events) {
+            this.events = events;
+        }
+
+        @Override
+        public void consume(LongEvent event, long sequence, boolean endOfBatch) {
+            long latency = System.nanoTime() - event.value;
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+            if (sequence == events - 1) {
+                countDownLatch.countDown();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.my.v6.component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程执行器
+ * 每个提交的任务（消费者）都运行在一个新的虚拟线程上，不会因为消费者比线程多而拒绝任务
+ * 配合MyParkingWaitStrategy使用，空闲的消费者不会占用载体线程
+ *
+ * 当前是Java 21的版本（multi-release jar中META-INF/versions/21下的类）
+ */
+public final class MyVirtualThreads {
+
+    private MyVirtualThreads() {
+    }
+
+    /**
+     * 当前jvm是否支持虚拟线程
+     * */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * 创建一个每个任务一个虚拟线程的执行器
+     * @param namePrefix 线程名前缀（线程名为namePrefix + 编号）
+     * */
+    public static ExecutorService newExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}